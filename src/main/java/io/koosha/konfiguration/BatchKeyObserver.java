@@ -0,0 +1,29 @@
+package io.koosha.konfiguration;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Set;
+
+/**
+ * Konfiguration observer which receives all the changed keys it observes at
+ * once, a single call per update, instead of a call per key as
+ * {@link KeyObserver} does.
+ * <p>
+ * Observing {@link KeyObserver#LISTEN_TO_ALL} receives every changed key.
+ */
+@FunctionalInterface
+public interface BatchKeyObserver {
+
+    /**
+     * Called once per update, if any of the observed keys changed.
+     *
+     * @param keys       the observed keys that changed (updated).
+     * @param oldVersion version of the konfiguration before the update.
+     * @param newVersion version of the konfiguration after the update.
+     */
+    void accept(@NotNull @Unmodifiable Set<String> keys,
+                long oldVersion,
+                long newVersion);
+
+}
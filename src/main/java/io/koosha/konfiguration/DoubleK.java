@@ -0,0 +1,41 @@
+package io.koosha.konfiguration;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * {@link K} specialized for double values. Konfiguration kombiners read the
+ * value without boxing, a single source's handle unboxes the value it holds.
+ */
+@ThreadSafe
+public interface DoubleK extends K<Double> {
+
+    /**
+     * Same as {@link #vn()} but returns the unboxed value.
+     *
+     * <p>Thread-safe.
+     *
+     * @return value this konfig holds.
+     * @throws KfgMissingKeyException if the value is missing or null.
+     */
+    double getAsDouble();
+
+    /**
+     * Same as {@link #vn(Object)} but returns the unboxed value.
+     *
+     * <p>Thread-safe.
+     *
+     * @param defaultValue value to return if the key is missing or its value is
+     *                     null.
+     * @return value this konfig holds, or defaultValue.
+     */
+    default double getAsDouble(final double defaultValue) {
+        // this.exits() is not atomic.
+        try {
+            return this.getAsDouble();
+        }
+        catch (final KfgMissingKeyException mk) {
+            return defaultValue;
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package io.koosha.konfiguration;
+
+import io.koosha.konfiguration.type.Kind;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Primitive specialized views of constant {@link K} values, such as the ones
+ * made by {@link DummyV}.
+ */
+@ThreadSafe
+@Immutable
+final class DummyPrimitiveV {
+
+    private DummyPrimitiveV() {
+        throw new UnsupportedOperationException();
+    }
+
+    @NotNull
+    @Contract(pure = true,
+              value = "_ -> new")
+    static BoolK bool(@NotNull final K<Boolean> k) {
+        return new OfBool(k);
+    }
+
+    @NotNull
+    @Contract(pure = true,
+              value = "_ -> new")
+    static IntK int_(@NotNull final K<Integer> k) {
+        return new OfInt(k);
+    }
+
+    @NotNull
+    @Contract(pure = true,
+              value = "_ -> new")
+    static LongK long_(@NotNull final K<Long> k) {
+        return new OfLong(k);
+    }
+
+    @NotNull
+    @Contract(pure = true,
+              value = "_ -> new")
+    static DoubleK double_(@NotNull final K<Double> k) {
+        return new OfDouble(k);
+    }
+
+
+    @ThreadSafe
+    @Immutable
+    private abstract static class Forwarding<U> implements K<U> {
+
+        @NotNull
+        final K<U> wrapped;
+
+        Forwarding(@NotNull final K<U> wrapped) {
+            Objects.requireNonNull(wrapped, "wrapped");
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public final boolean supportsRegister() {
+            return this.wrapped.supportsRegister();
+        }
+
+        @Override
+        @NotNull
+        public final Handle registerSoft(@NotNull final KeyObserver observer) {
+            return this.wrapped.registerSoft(observer);
+        }
+
+        @Override
+        @NotNull
+        public final Handle register(@NotNull final KeyObserver observer) {
+            return this.wrapped.register(observer);
+        }
+
+        @Override
+        @NotNull
+        public final K<U> deregister(@NotNull final Handle observer) {
+            this.wrapped.deregister(observer);
+            return this;
+        }
+
+        @Override
+        @NotNull
+        public final String key() {
+            return this.wrapped.key();
+        }
+
+        @Override
+        @Nullable
+        public final Kind<U> type() {
+            return this.wrapped.type();
+        }
+
+        @Override
+        public final boolean exists() {
+            return this.wrapped.exists();
+        }
+
+        @Override
+        @NotNull
+        public final Lookup lookup() {
+            return this.wrapped.lookup();
+        }
+
+        @Override
+        public final U v() {
+            return this.wrapped.v();
+        }
+
+        @Override
+        @NotNull
+        public final U vn() {
+            return this.wrapped.vn();
+        }
+
+        @Override
+        public final U v(@Nullable final U defaultValue) {
+            return this.wrapped.v(defaultValue);
+        }
+
+        @Override
+        public final U vn(@NotNull final U defaultValue) {
+            return this.wrapped.vn(defaultValue);
+        }
+
+        @Override
+        public final String toString() {
+            return this.wrapped.toString();
+        }
+
+    }
+
+    private static final class OfBool extends Forwarding<Boolean> implements BoolK {
+
+        OfBool(@NotNull final K<Boolean> wrapped) {
+            super(wrapped);
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            return this.wrapped.vn();
+        }
+
+        @Override
+        public boolean getAsBoolean(final boolean defaultValue) {
+            return this.wrapped.lookup() == Lookup.FOUND ? this.wrapped.vn() : defaultValue;
+        }
+
+    }
+
+    private static final class OfInt extends Forwarding<Integer> implements IntK {
+
+        OfInt(@NotNull final K<Integer> wrapped) {
+            super(wrapped);
+        }
+
+        @Override
+        public int getAsInt() {
+            return this.wrapped.vn();
+        }
+
+        @Override
+        public int getAsInt(final int defaultValue) {
+            return this.wrapped.lookup() == Lookup.FOUND ? this.wrapped.vn() : defaultValue;
+        }
+
+    }
+
+    private static final class OfLong extends Forwarding<Long> implements LongK {
+
+        OfLong(@NotNull final K<Long> wrapped) {
+            super(wrapped);
+        }
+
+        @Override
+        public long getAsLong() {
+            return this.wrapped.vn();
+        }
+
+        @Override
+        public long getAsLong(final long defaultValue) {
+            return this.wrapped.lookup() == Lookup.FOUND ? this.wrapped.vn() : defaultValue;
+        }
+
+    }
+
+    private static final class OfDouble extends Forwarding<Double> implements DoubleK {
+
+        OfDouble(@NotNull final K<Double> wrapped) {
+            super(wrapped);
+        }
+
+        @Override
+        public double getAsDouble() {
+            return this.wrapped.vn();
+        }
+
+        @Override
+        public double getAsDouble(final double defaultValue) {
+            return this.wrapped.lookup() == Lookup.FOUND ? this.wrapped.vn() : defaultValue;
+        }
+
+    }
+
+}
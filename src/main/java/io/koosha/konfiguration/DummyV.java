@@ -113,12 +113,36 @@ public final class DummyV<U> implements K<U> {
         return v;
     }
 
+    @Override
+    @Nullable
+    @Contract(pure = true)
+    public U v(@Nullable final U defaultValue) {
+        return this.exists ? this.v : defaultValue;
+    }
+
+    @Override
+    @Contract(pure = true)
+    public U vn(@NotNull final U defaultValue) {
+        Objects.requireNonNull(defaultValue,
+            "defaultValue for vn() can not be null, you may use the v() variant instead");
+        return this.exists && this.v != null ? this.v : defaultValue;
+    }
+
     @Override
     @Contract(pure = true)
     public boolean exists() {
         return this.exists;
     }
 
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public Lookup lookup() {
+        if (!this.exists)
+            return Lookup.MISSING;
+        return this.v == null ? Lookup.NULL : Lookup.FOUND;
+    }
+
     @Override
     public String toString() {
         String vStr;
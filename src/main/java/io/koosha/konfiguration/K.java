@@ -123,6 +123,20 @@ public interface K<U> {
         return this.exists() && this.v() != null;
     }
 
+    /**
+     * State of the value denoted by {@link #key()} in the original source.
+     *
+     * <p>Thread-safe.
+     *
+     * <p>Must not throw for missing keys or mismatching types, the defaults
+     * of {@link #v(Object)} and {@link #vn(Object)} rely on it.
+     *
+     * @return state of the value of this konfiguration.
+     */
+    @NotNull
+    @Contract(pure = true)
+    Lookup lookup();
+
 
     /**
      * Actual value of this konfiguration.
@@ -151,6 +165,10 @@ public interface K<U> {
      *
      * <p>Thread-safe.
      *
+     * <p>The default implementation asks {@link #lookup()} first, so a missing
+     * key costs no exception. Implementations whose value may change in
+     * between the two calls should override it to read the value once.
+     *
      * @param defaultValue default value to use if key of this konfiguration
      *                     has been removed from the original source.
      * @return actual value of this konfiguration, or defaultValue if the key
@@ -158,27 +176,15 @@ public interface K<U> {
      * @see #v()
      */
     default U v(@Nullable final U defaultValue) {
-        // this.exits() is not atomic.
-        try {
-            return this.v();
-        }
-        catch (final KfgMissingKeyException mk) {
-            return defaultValue;
-        }
+        return this.lookup() == Lookup.MISSING ? defaultValue : this.v();
     }
 
     default U vn(@NotNull final U defaultValue) {
         Objects.requireNonNull(defaultValue,
             "defaultValue for vn() can not be null, you may use the v() variant instead");
 
-        // this.exits() is not atomic.
-        try {
-            final U v = this.v();
-            return v == null ? defaultValue : v;
-        }
-        catch (final KfgMissingKeyException mk) {
-            return defaultValue;
-        }
+        final Lookup lookup = this.lookup();
+        return lookup == Lookup.MISSING || lookup == Lookup.NULL ? defaultValue : this.v();
     }
 
 }
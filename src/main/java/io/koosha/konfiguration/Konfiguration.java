@@ -1,11 +1,14 @@
 package io.koosha.konfiguration;
 
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.ThreadSafe;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -25,7 +28,7 @@ public interface Konfiguration {
      * @return konfiguration value wrapper for the requested key.
      */
     @NotNull
-    K<Boolean> bool(@NotNull String key);
+    BoolK bool(@NotNull String key);
 
     /**
      * Get a byte konfiguration value.
@@ -61,7 +64,7 @@ public interface Konfiguration {
      * @return konfiguration value wrapper for the requested key.
      */
     @NotNull
-    K<Integer> int_(@NotNull String key);
+    IntK int_(@NotNull String key);
 
     /**
      * Get a long konfiguration value.
@@ -70,7 +73,7 @@ public interface Konfiguration {
      * @return konfiguration value wrapper for the requested key.
      */
     @NotNull
-    K<Long> long_(@NotNull String key);
+    LongK long_(@NotNull String key);
 
     /**
      * Get a float konfiguration value.
@@ -88,7 +91,7 @@ public interface Konfiguration {
      * @return konfiguration value wrapper for the requested key.
      */
     @NotNull
-    K<Double> double_(@NotNull String key);
+    DoubleK double_(@NotNull String key);
 
     /**
      * Get a string konfiguration value.
@@ -157,6 +160,23 @@ public interface Konfiguration {
     boolean has(@NotNull String key,
                 @NotNull Kind<?> type);
 
+    /**
+     * Check if {@code key} exists in the configuration.
+     *
+     * <p>Same as {@link #has(String, Kind)}, but lets implementations walk
+     * the already split key instead of splitting it on each call.
+     *
+     * @param key  the config key to check it's existence
+     * @param type type of konfiguration value.
+     * @return true if the key exists, false otherwise.
+     */
+    @Contract(pure = true)
+    default boolean has(@NotNull final KeyPath key,
+                        @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        return this.has(key.key(), type);
+    }
+
     /**
      * Get a subset view of this konfiguration representing all the values under
      * the namespace of supplied key.
@@ -250,6 +270,39 @@ public interface Konfiguration {
     Handle registerSoft(@NotNull KeyObserver observer,
                         @NotNull String key);
 
+    /**
+     * Register a listener to be notified, once per update, of all the updated
+     * keys among the given keys.
+     * <p>
+     * <em>DOES</em> hold an strong reference to the observer.
+     *
+     * @param observer the listener to register.
+     * @param keys     the keys to listen to.
+     * @return handle usable for deregister().
+     * @see #registerSoft(BatchKeyObserver, Collection)
+     */
+    @NotNull
+    @Contract(mutates = "this")
+    Handle register(@NotNull BatchKeyObserver observer,
+                    @NotNull Collection<String> keys);
+
+    /**
+     * Register a listener to be notified, once per update, of all the updated
+     * keys among the given keys.
+     * <p>
+     * Does <em>NOT</em> hold an strong reference to the observer, uses weak
+     * references.
+     *
+     * @param observer the listener to register.
+     * @param keys     the keys to listen to.
+     * @return handle usable for deregister().
+     * @see #register(BatchKeyObserver, Collection)
+     */
+    @NotNull
+    @Contract(mutates = "this")
+    Handle registerSoft(@NotNull BatchKeyObserver observer,
+                        @NotNull Collection<String> keys);
+
 
     /**
      * Deregister a previously registered listener of a key.
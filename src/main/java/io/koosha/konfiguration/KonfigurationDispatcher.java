@@ -0,0 +1,271 @@
+package io.koosha.konfiguration;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs observer notifications off the update thread, each observer on its own
+ * serial lane: notifications of the same observer run one at a time and in
+ * order, while different observers run in parallel.
+ *
+ * <p>Pass it as the executor of {@link KonfigurationManager#updateNow(Executor)}.
+ * A notification superseding one still waiting in the lane (e.g. of the same
+ * key to the same observer) replaces it, and takes its place at the tail of the
+ * lane, so the observer sees the latest state of each key in the order they
+ * last changed. A
+ * lane holds at most the given capacity of pending notifications, beyond that
+ * {@link #execute(Runnable)} blocks until the observer catches up, so no
+ * notification is ever lost. A notification sent from the lane of the same
+ * observer (an observer causing an update it observes) is never blocked, as it
+ * would wait for itself.
+ *
+ * <p>Runnables other than {@link Notification} have no lane, they are run on
+ * the executor as they are.
+ */
+@ThreadSafe
+public final class KonfigurationDispatcher implements Executor, AutoCloseable {
+
+    /**
+     * Default max number of pending notifications of each observer, before
+     * blocking.
+     */
+    public static final int DEFAULT_LANE_CAPACITY = 1024;
+
+    /**
+     * A notification to an observer.
+     */
+    public interface Notification extends Runnable {
+
+        /**
+         * The observer being notified, notifications of equal observers run
+         * in order.
+         *
+         * @return the observer being notified.
+         */
+        @NotNull
+        Object observer();
+
+        /**
+         * Notifications of the same observer and the same slot supersede one
+         * another.
+         *
+         * @return slot of this notification.
+         */
+        @NotNull
+        Object slot();
+
+        /**
+         * The notification to run instead of this one and an older pending
+         * one of the same slot. This one by default.
+         *
+         * @param older the older notification.
+         * @return the notification to run instead of both.
+         */
+        @NotNull
+        default Notification supersede(@NotNull final Notification older) {
+            return this;
+        }
+
+    }
+
+    @NotNull
+    private final Executor executor;
+
+    @Nullable
+    private final ExecutorService owned;
+
+    private final int laneCapacity;
+
+    private final ConcurrentHashMap<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a dispatcher running on virtual threads if the JVM has them,
+     * otherwise on a cached pool of daemon threads. The executor is shut down
+     * on {@link #close()}.
+     */
+    public KonfigurationDispatcher() {
+        final ExecutorService virtual = virtualThreads();
+        this.owned = virtual != null
+            ? virtual
+            : Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "konfiguration-dispatcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor = this.owned;
+        this.laneCapacity = DEFAULT_LANE_CAPACITY;
+    }
+
+    /**
+     * Creates a dispatcher running on the given executor, which is not shut
+     * down on {@link #close()}.
+     *
+     * @param executor     the executor to run lanes on.
+     * @param laneCapacity max number of pending notifications of each
+     *                     observer, before blocking.
+     * @throws KfgIllegalArgumentException if laneCapacity is not positive.
+     */
+    public KonfigurationDispatcher(@NotNull final Executor executor,
+                                   final int laneCapacity) {
+        Objects.requireNonNull(executor, "executor");
+        if (laneCapacity < 1)
+            throw new KfgIllegalArgumentException(null, "laneCapacity must be positive: " + laneCapacity);
+
+        this.executor = executor;
+        this.owned = null;
+        this.laneCapacity = laneCapacity;
+    }
+
+    /**
+     * Queues the notification in the lane of its observer, blocking while the
+     * lane is full.
+     *
+     * @param command the notification to run.
+     */
+    @Override
+    public void execute(@NotNull final Runnable command) {
+        Objects.requireNonNull(command, "command");
+
+        if (!(command instanceof Notification)) {
+            this.executor.execute(command);
+            return;
+        }
+
+        final Notification notification = (Notification) command;
+        while (!this.lanes.computeIfAbsent(notification.observer(), Lane::new).offer(notification)) {
+            // Lane was retired in between, a fresh one is taken.
+        }
+    }
+
+    /**
+     * Shuts down the executor if it's owned by this dispatcher.
+     */
+    @Override
+    public void close() {
+        if (this.owned != null)
+            this.owned.shutdown();
+    }
+
+    @Nullable
+    private static ExecutorService virtualThreads() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        }
+        catch (final ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+
+    private final class Lane implements Runnable {
+
+        @NotNull
+        private final Object observer;
+
+        // All guarded by this.
+        private final LinkedHashMap<Object, Notification> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        private boolean retired;
+        @Nullable
+        private Thread runner;
+
+        private Lane(@NotNull final Object observer) {
+            this.observer = observer;
+        }
+
+        /**
+         * @return false if the lane is retired and a new one must be used.
+         */
+        private boolean offer(@NotNull final Notification notification) {
+            synchronized (this) {
+                if (this.retired)
+                    return false;
+
+                final Object slot = notification.slot();
+                this.awaitRoom(slot);
+                // Moves to the tail of the lane, put() alone keeps the place.
+                final Notification older = this.pending.remove(slot);
+                this.pending.put(slot, older == null ? notification : notification.supersede(older));
+
+                if (this.scheduled)
+                    return true;
+                this.scheduled = true;
+            }
+
+            try {
+                KonfigurationDispatcher.this.executor.execute(this);
+            }
+            catch (final RuntimeException e) {
+                synchronized (this) {
+                    this.scheduled = false;
+                }
+                throw e;
+            }
+            return true;
+        }
+
+        /**
+         * Must hold the lock of this. Waits until the lane has room for a
+         * notification of the slot, unless called from the lane itself or the
+         * lane is not running to make room. On interruption, the notification
+         * is taken anyway.
+         */
+        private void awaitRoom(@NotNull final Object slot) {
+            while (this.scheduled
+                && this.pending.size() >= KonfigurationDispatcher.this.laneCapacity
+                && !this.pending.containsKey(slot)
+                && this.runner != Thread.currentThread()) {
+                try {
+                    this.wait();
+                }
+                catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final Notification next;
+                synchronized (this) {
+                    final Iterator<Map.Entry<Object, Notification>> head = this.pending.entrySet().iterator();
+                    if (!head.hasNext()) {
+                        this.scheduled = false;
+                        this.retired = true;
+                        this.runner = null;
+                        KonfigurationDispatcher.this.lanes.remove(this.observer, this);
+                        return;
+                    }
+                    next = head.next().getValue();
+                    head.remove();
+                    this.runner = Thread.currentThread();
+                    this.notifyAll();
+                }
+
+                try {
+                    next.run();
+                }
+                catch (final Throwable t) {
+                    final Thread current = Thread.currentThread();
+                    current.getUncaughtExceptionHandler().uncaughtException(current, t);
+                }
+            }
+        }
+
+    }
+
+}
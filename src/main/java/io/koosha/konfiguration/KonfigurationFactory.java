@@ -9,8 +9,11 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.Yaml;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.prefs.Preferences;
 
@@ -117,6 +120,29 @@ public interface KonfigurationFactory {
     Konfiguration map(@NotNull String name,
                       @NotNull Supplier<Map<String, ?>> storage);
 
+    /**
+     * Creates a {@link Konfiguration} with the given backing store, which
+     * tells its changes through a version number.
+     * <p>
+     * The version must change whenever the map changes, checking for updates
+     * only compares versions instead of hashing the whole map. The map is
+     * not copied either, so the map supplied for a version must not change
+     * afterwards (supply a new map, e.g. a copy-on-write snapshot, instead).
+     *
+     * @param name    name of the created source.
+     * @param storage konfig source.
+     * @param version version of the map currently supplied by storage.
+     * @return a konfig source.
+     * @throws NullPointerException if any of the arguments is null.
+     * @throws KfgSourceException   if the provided storage by provider is null
+     */
+    @NotNull
+    @Contract(pure = true,
+              value = "_, _, _ -> new")
+    Konfiguration map(@NotNull String name,
+                      @NotNull Supplier<Map<String, ?>> storage,
+                      @NotNull LongSupplier version);
+
     /**
      * Creates a {@link Konfiguration} with the given backing store.
      *
@@ -140,6 +166,27 @@ public interface KonfigurationFactory {
     Konfiguration preferences(@NotNull String name,
                               @NotNull Preferences storage);
 
+
+    /**
+     * Creates a {@link Konfiguration} reading a properties file from the given file.
+     * <p>
+     * The file is not re-read on each check for updates, its directory is
+     * watched by a {@link java.nio.file.WatchService} and the file is read
+     * again only after something in the directory changes (including the file
+     * being replaced by an atomic rename), once the changes settle.
+     *
+     * @param name name of created konfiguration.
+     * @param file the file to read, encoded in UTF-8.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the file can not be read or watched.
+     * @throws KfgSourceException   if the file is not a valid properties file.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration properties(@NotNull String name,
+                             @NotNull Path file);
+
     // =========================================================================
 
     /**
@@ -166,6 +213,52 @@ public interface KonfigurationFactory {
     Konfiguration jacksonJson(@NotNull String name,
                               @NotNull Supplier<String> json);
 
+
+    /**
+     * Creates a {@link Konfiguration} reading json from the given file.
+     * <p>
+     * The file is not re-read on each check for updates, its directory is
+     * watched by a {@link java.nio.file.WatchService} and the file is read
+     * again only after something in the directory changes (including the file
+     * being replaced by an atomic rename), once the changes settle.
+     *
+     * @param name name of created konfiguration.
+     * @param file the file to read, encoded in UTF-8.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the file can not be read or watched.
+     * @throws KfgSourceException   if the file can not be parsed by jackson.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration jacksonJson(@NotNull String name,
+                              @NotNull Path file);
+
+
+    /**
+     * Creates a {@link Konfiguration} with the given provider of json
+     * encoded in UTF-8.
+     * <p>
+     * The bytes are parsed as they are, without being decoded into a string
+     * first. Only the remaining bytes of the supplied buffer (position to
+     * limit) are read, and the buffer is not moved, so the same buffer may be
+     * supplied again: a {@code byte[]} can be supplied through
+     * {@link ByteBuffer#wrap(byte[])}, a memory mapped file region through
+     * {@link java.nio.channels.FileChannel#map}. Changes are detected by
+     * comparing a digest of the bytes, the supplied buffer is not kept.
+     *
+     * @param name  name of created konfiguration.
+     * @param bytes backing store provider. Must always return a
+     *              non-null buffer.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the provided bytes can not be parsed by jackson.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration jacksonJsonBytes(@NotNull String name,
+                                   @NotNull Supplier<ByteBuffer> bytes);
+
     /**
      * Creates a {@link Konfiguration} with the given json string as source.
      * <p>
@@ -206,6 +299,9 @@ public interface KonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Readers built from the mapper are reused for as
+     *                     long as the same instance is returned, so a
+     *                     shared mapper is better than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if jackson library is not in the classpath. it specifically looks
@@ -235,6 +331,9 @@ public interface KonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Readers built from the mapper are reused for as
+     *                     long as the same instance is returned, so a
+     *                     shared mapper is better than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if jackson library is not in the classpath. it specifically looks
@@ -274,6 +373,52 @@ public interface KonfigurationFactory {
     Konfiguration jacksonYaml(@NotNull String name,
                               @NotNull Supplier<String> json);
 
+
+    /**
+     * Creates a {@link Konfiguration} reading yaml from the given file.
+     * <p>
+     * The file is not re-read on each check for updates, its directory is
+     * watched by a {@link java.nio.file.WatchService} and the file is read
+     * again only after something in the directory changes (including the file
+     * being replaced by an atomic rename), once the changes settle.
+     *
+     * @param name name of created konfiguration.
+     * @param file the file to read, encoded in UTF-8.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the file can not be read or watched.
+     * @throws KfgSourceException   if the file can not be parsed by jackson.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration jacksonYaml(@NotNull String name,
+                              @NotNull Path file);
+
+
+    /**
+     * Creates a {@link Konfiguration} with the given provider of yaml
+     * encoded in UTF-8.
+     * <p>
+     * The bytes are parsed as they are, without being decoded into a string
+     * first. Only the remaining bytes of the supplied buffer (position to
+     * limit) are read, and the buffer is not moved, so the same buffer may be
+     * supplied again: a {@code byte[]} can be supplied through
+     * {@link ByteBuffer#wrap(byte[])}, a memory mapped file region through
+     * {@link java.nio.channels.FileChannel#map}. Changes are detected by
+     * comparing a digest of the bytes, the supplied buffer is not kept.
+     *
+     * @param name  name of created konfiguration.
+     * @param bytes backing store provider. Must always return a
+     *              non-null buffer.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the provided bytes can not be parsed by jackson.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration jacksonYamlBytes(@NotNull String name,
+                                   @NotNull Supplier<ByteBuffer> bytes);
+
     /**
      * Creates a {@link Konfiguration} with the given json string as source.
      * <p>
@@ -314,6 +459,9 @@ public interface KonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Readers built from the mapper are reused for as
+     *                     long as the same instance is returned, so a
+     *                     shared mapper is better than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if jackson library is not in the classpath. it specifically looks
@@ -343,6 +491,9 @@ public interface KonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Readers built from the mapper are reused for as
+     *                     long as the same instance is returned, so a
+     *                     shared mapper is better than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if jackson library is not in the classpath. it specifically looks
@@ -442,6 +593,52 @@ public interface KonfigurationFactory {
     Konfiguration snakeYaml(@NotNull String name,
                             @NotNull Supplier<String> yaml);
 
+
+    /**
+     * Creates a {@link Konfiguration} reading yaml from the given file.
+     * <p>
+     * The file is not re-read on each check for updates, its directory is
+     * watched by a {@link java.nio.file.WatchService} and the file is read
+     * again only after something in the directory changes (including the file
+     * being replaced by an atomic rename), once the changes settle.
+     *
+     * @param name name of created konfiguration.
+     * @param file the file to read, encoded in UTF-8.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the file can not be read or watched.
+     * @throws KfgSourceException   if the file can not be parsed by snake yaml.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration snakeYaml(@NotNull String name,
+                            @NotNull Path file);
+
+
+    /**
+     * Creates a {@link Konfiguration} with the given provider of yaml
+     * encoded in UTF-8.
+     * <p>
+     * The bytes are parsed as they are, without being decoded into a string
+     * first. Only the remaining bytes of the supplied buffer (position to
+     * limit) are read, and the buffer is not moved, so the same buffer may be
+     * supplied again: a {@code byte[]} can be supplied through
+     * {@link ByteBuffer#wrap(byte[])}, a memory mapped file region through
+     * {@link java.nio.channels.FileChannel#map}. Changes are detected by
+     * comparing a digest of the bytes, the supplied buffer is not kept.
+     *
+     * @param name  name of created konfiguration.
+     * @param bytes backing store provider. Must always return a
+     *              non-null buffer.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the provided bytes can not be parsed by snake yaml.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration snakeYamlBytes(@NotNull String name,
+                                 @NotNull Supplier<ByteBuffer> bytes);
+
     /**
      * Creates a {@link Konfiguration} with the given yaml provider and object
      * mapper provider.
@@ -497,6 +694,52 @@ public interface KonfigurationFactory {
     Konfiguration gsonJson(@NotNull String name,
                            @NotNull Supplier<String> json);
 
+
+    /**
+     * Creates a {@link Konfiguration} reading json from the given file.
+     * <p>
+     * The file is not re-read on each check for updates, its directory is
+     * watched by a {@link java.nio.file.WatchService} and the file is read
+     * again only after something in the directory changes (including the file
+     * being replaced by an atomic rename), once the changes settle.
+     *
+     * @param name name of created konfiguration.
+     * @param file the file to read, encoded in UTF-8.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the file can not be read or watched.
+     * @throws KfgSourceException   if the file can not be parsed by gson.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration gsonJson(@NotNull String name,
+                           @NotNull Path file);
+
+
+    /**
+     * Creates a {@link Konfiguration} with the given provider of json
+     * encoded in UTF-8.
+     * <p>
+     * The bytes are parsed as they are, without being decoded into a string
+     * first. Only the remaining bytes of the supplied buffer (position to
+     * limit) are read, and the buffer is not moved, so the same buffer may be
+     * supplied again: a {@code byte[]} can be supplied through
+     * {@link ByteBuffer#wrap(byte[])}, a memory mapped file region through
+     * {@link java.nio.channels.FileChannel#map}. Changes are detected by
+     * comparing a digest of the bytes, the supplied buffer is not kept.
+     *
+     * @param name  name of created konfiguration.
+     * @param bytes backing store provider. Must always return a
+     *              non-null buffer.
+     * @return a konfig source.
+     * @throws NullPointerException if any of its arguments are null.
+     * @throws KfgSourceException   if the provided bytes can not be parsed by gson.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    Konfiguration gsonJsonBytes(@NotNull String name,
+                                @NotNull Supplier<ByteBuffer> bytes);
+
     /**
      * Creates a {@link Konfiguration} with the given json string as source.
      *
@@ -530,6 +773,9 @@ public interface KonfigurationFactory {
      *                     a valid non-null Gson, and if required, it
      *                     must be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Type adapters are reused for as long as the same
+     *                     instance is returned, so a shared Gson is better
+     *                     than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if gson library is not in the classpath. it specifically looks
@@ -556,6 +802,9 @@ public interface KonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Type adapters are reused for as long as the same
+     *                     instance is returned, so a shared Gson is better
+     *                     than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if gson library is not in the classpath. it specifically looks
@@ -23,6 +23,25 @@ public interface KonfigurationManager {
     @Unmodifiable
     Map<String, Collection<Runnable>> update();
 
+    /**
+     * Same as {@link #update()}, but refreshes (fetches and parses) the
+     * sources concurrently, on the given executor. Sources are still merged
+     * in their order of precedence.
+     *
+     * <p>The default implementation ignores the executor.
+     *
+     * <p><b>NOT</b> Thread-safe
+     *
+     * @param refresher runs the refresh of each source.
+     * @return list of observers and the key they should be notified about.
+     */
+    @NotNull
+    @Unmodifiable
+    default Map<String, Collection<Runnable>> update(@NotNull final Executor refresher) {
+        Objects.requireNonNull(refresher, "refresher");
+        return this.update();
+    }
+
     default boolean updateNow() {
         return this.updateNow(Runnable::run);
     }
@@ -40,4 +59,37 @@ public interface KonfigurationManager {
 
     boolean hasUpdate();
 
+    /**
+     * Same as {@link #updateNow(Executor)}, but to be called right after
+     * {@link #hasUpdate()}: the outcome of that poll may be taken as is
+     * instead of asking the sources again, so a source found unchanged by it
+     * is kept as is.
+     *
+     * <p>The default implementation is the same as
+     * {@link #updateNow(Executor)}.
+     *
+     * <p><b>NOT</b> Thread-safe
+     *
+     * @param executor executor to notify observers on.
+     * @return true if anything was updated.
+     */
+    default boolean updateNowPolled(@NotNull final Executor executor) {
+        return this.updateNow(executor);
+    }
+
+    /**
+     * A stamp of the content in the sources as seen by the last call to
+     * {@link #hasUpdate()}, which changes whenever any of them changes again.
+     * See {@link Source#pendingVersion()}.
+     *
+     * <p>The default implementation never changes.
+     *
+     * <p><b>NOT</b> Thread-safe
+     *
+     * @return stamp of the content waiting in the sources.
+     */
+    default long pendingVersion() {
+        return 0;
+    }
+
 }
@@ -0,0 +1,379 @@
+package io.koosha.konfiguration;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Periodically updates {@link KonfigurationManager}s in the background, many
+ * managers sharing the same thread(s).
+ *
+ * <p>Each scheduled manager is polled on its own interval, plus a random
+ * jitter so that managers scheduled together do not poll together. Runs of the
+ * same manager never overlap, a refresh requested while one is running is
+ * coalesced into a single run right after it. On {@link KfgSourceException}
+ * the interval is doubled on each consecutive failure, up to
+ * {@link #MAX_BACKOFF} times the interval, and reset on the next success.
+ *
+ * <p>Optionally, updates are coalesced: once an update is seen the manager is
+ * not updated until its sources stay quiet (see
+ * {@link KonfigurationManager#pendingVersion()}) for the given quiet period,
+ * or until the given max delay since the first change of the burst passes,
+ * whichever comes first. A burst of changes, such as several files being
+ * rewritten in quick succession, then results in a single update.
+ *
+ * <p>Updates run on the scheduler thread, observers are notified on the
+ * executor given to {@link #schedule(KonfigurationManager, Duration, Duration, Executor, Consumer)}.
+ * A scheduled manager must not be updated by anyone else, as managers are not
+ * thread safe.
+ */
+@ThreadSafe
+public final class KonfigurationScheduler implements AutoCloseable {
+
+    /**
+     * Max factor of interval to back off to, on repeated source failures.
+     */
+    public static final int MAX_BACKOFF = 64;
+
+    @NotNull
+    private final ScheduledExecutorService executor;
+
+    private final boolean ownExecutor;
+
+    private final Set<Scheduled> scheduled = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a scheduler running on a single daemon thread of its own, shut
+     * down on {@link #close()}.
+     */
+    public KonfigurationScheduler() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "konfiguration-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.executor = executor;
+        this.ownExecutor = true;
+    }
+
+    /**
+     * Creates a scheduler running on the given executor, which is not shut
+     * down on {@link #close()}.
+     *
+     * @param executor the executor to run on.
+     */
+    public KonfigurationScheduler(@NotNull final ScheduledExecutorService executor) {
+        Objects.requireNonNull(executor, "executor");
+        this.executor = executor;
+        this.ownExecutor = false;
+    }
+
+    /**
+     * Same as {@link #schedule(KonfigurationManager, Duration, Duration, Executor, Consumer)}
+     * with no jitter, notifying observers on the scheduler thread and handing
+     * errors to the uncaught exception handler of the scheduler thread.
+     *
+     * @param manager  the manager to update.
+     * @param interval poll interval.
+     * @return the scheduled task.
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public Scheduled schedule(@NotNull final KonfigurationManager manager,
+                              @NotNull final Duration interval) {
+        return this.schedule(manager, interval, Duration.ZERO, Runnable::run, null);
+    }
+
+    /**
+     * Same as {@link #schedule(KonfigurationManager, Duration, Duration, Duration, Duration, Executor, Consumer)}
+     * without coalescing updates.
+     *
+     * @param manager   the manager to update.
+     * @param interval  poll interval.
+     * @param jitter    max random delay added to each interval.
+     * @param observers executor to notify observers on.
+     * @param onError   receives errors thrown while updating, if null they are
+     *                  handed to the uncaught exception handler of the
+     *                  scheduler thread.
+     * @return the scheduled task.
+     * @throws KfgIllegalArgumentException if interval is not positive or
+     *                                     jitter is negative.
+     */
+    @NotNull
+    @Contract("_, _, _, _, _ -> new")
+    public Scheduled schedule(@NotNull final KonfigurationManager manager,
+                              @NotNull final Duration interval,
+                              @NotNull final Duration jitter,
+                              @NotNull final Executor observers,
+                              @Nullable final Consumer<? super Throwable> onError) {
+        return this.schedule(manager, interval, jitter, Duration.ZERO, Duration.ZERO, observers, onError);
+    }
+
+    /**
+     * Poll and update the manager periodically, coalescing bursts of changes
+     * into a single update.
+     *
+     * <p>While a burst is going on the manager is polled on every interval
+     * (with no back off nor jitter) to see if it's settled.
+     *
+     * @param manager   the manager to update.
+     * @param interval  poll interval.
+     * @param jitter    max random delay added to each interval.
+     * @param quiet     how long the sources must stay unchanged before
+     *                  updating, zero to update as soon as a poll is due.
+     * @param maxDelay  max time to wait for the sources to stay quiet, since
+     *                  the first change seen, unused if quiet is zero.
+     * @param observers executor to notify observers on.
+     * @param onError   receives errors thrown while updating, if null they are
+     *                  handed to the uncaught exception handler of the
+     *                  scheduler thread.
+     * @return the scheduled task.
+     * @throws KfgIllegalArgumentException if interval is not positive, jitter
+     *                                     or quiet is negative, or maxDelay is
+     *                                     shorter than quiet.
+     */
+    @NotNull
+    @Contract("_, _, _, _, _, _, _ -> new")
+    public Scheduled schedule(@NotNull final KonfigurationManager manager,
+                              @NotNull final Duration interval,
+                              @NotNull final Duration jitter,
+                              @NotNull final Duration quiet,
+                              @NotNull final Duration maxDelay,
+                              @NotNull final Executor observers,
+                              @Nullable final Consumer<? super Throwable> onError) {
+        Objects.requireNonNull(manager, "manager");
+        Objects.requireNonNull(interval, "interval");
+        Objects.requireNonNull(jitter, "jitter");
+        Objects.requireNonNull(quiet, "quiet");
+        Objects.requireNonNull(maxDelay, "maxDelay");
+        Objects.requireNonNull(observers, "observers");
+
+        if (interval.isNegative() || interval.isZero())
+            throw new KfgIllegalArgumentException(null, "interval must be positive: " + interval);
+        if (jitter.isNegative())
+            throw new KfgIllegalArgumentException(null, "jitter must not be negative: " + jitter);
+        if (quiet.isNegative())
+            throw new KfgIllegalArgumentException(null, "quiet must not be negative: " + quiet);
+        if (!quiet.isZero() && maxDelay.compareTo(quiet) < 0)
+            throw new KfgIllegalArgumentException(null, "maxDelay must not be shorter than quiet: " + maxDelay);
+
+        final Scheduled s = new Scheduled(manager, interval.toNanos(), jitter.toNanos(),
+            quiet.toNanos(), maxDelay.toNanos(), observers, onError);
+        this.scheduled.add(s);
+        synchronized (s) {
+            s.scheduleNext(s.delay());
+        }
+        return s;
+    }
+
+    /**
+     * Cancels all scheduled tasks, and shuts down the executor if it's owned
+     * by this scheduler.
+     */
+    @Override
+    public void close() {
+        for (final Scheduled s : this.scheduled)
+            s.cancel();
+        if (this.ownExecutor)
+            this.executor.shutdownNow();
+    }
+
+
+    /**
+     * A manager scheduled for periodic updates.
+     */
+    @ThreadSafe
+    public final class Scheduled implements Runnable {
+
+        @NotNull
+        private final KonfigurationManager manager;
+
+        private final long interval;
+
+        private final long jitter;
+
+        private final long quiet;
+
+        private final long maxDelay;
+
+        @NotNull
+        private final Executor observers;
+
+        @Nullable
+        private final Consumer<? super Throwable> onError;
+
+        // All guarded by this.
+        private ScheduledFuture<?> next;
+        private boolean running;
+        private boolean again;
+        private boolean cancelled;
+        private boolean forced;
+        private int failures;
+
+        // Only touched by the running run().
+        private boolean burst;
+        private long burstStart;
+        private long lastChange;
+        private long stamp;
+
+        private Scheduled(@NotNull final KonfigurationManager manager,
+                          final long interval,
+                          final long jitter,
+                          final long quiet,
+                          final long maxDelay,
+                          @NotNull final Executor observers,
+                          @Nullable final Consumer<? super Throwable> onError) {
+            this.manager = manager;
+            this.interval = interval;
+            this.jitter = jitter;
+            this.quiet = quiet;
+            this.maxDelay = maxDelay;
+            this.observers = observers;
+            this.onError = onError;
+        }
+
+        /**
+         * Refresh as soon as possible, or right after the currently running
+         * refresh if any, without waiting for the sources to stay quiet.
+         */
+        public synchronized void refreshNow() {
+            if (this.cancelled)
+                return;
+            this.forced = true;
+            if (this.running)
+                this.again = true;
+            else
+                this.scheduleNext(0);
+        }
+
+        /**
+         * Stop updating the manager, a running update is not interrupted.
+         */
+        public synchronized void cancel() {
+            this.cancelled = true;
+            if (this.next != null)
+                this.next.cancel(false);
+            KonfigurationScheduler.this.scheduled.remove(this);
+        }
+
+        @Override
+        public void run() {
+            final boolean forced;
+            synchronized (this) {
+                if (this.cancelled || this.running)
+                    return;
+                this.running = true;
+                this.again = false;
+                forced = this.forced;
+                this.forced = false;
+            }
+
+            boolean sourceFailure = false;
+            long wait = -1;
+            try {
+                if (this.quiet == 0 || forced) {
+                    wait = 0;
+                    this.manager.updateNow(this.observers);
+                }
+                else {
+                    wait = this.settle();
+                    // settle() just polled the sources.
+                    if (wait == 0)
+                        this.manager.updateNowPolled(this.observers);
+                }
+            }
+            catch (final KfgSourceException e) {
+                sourceFailure = true;
+                this.error(e);
+            }
+            catch (final Throwable t) {
+                this.error(t);
+            }
+
+            synchronized (this) {
+                if (wait <= 0)
+                    this.burst = false;
+                this.running = false;
+                this.failures = sourceFailure ? Math.min(this.failures + 1, 31) : 0;
+                if (!this.cancelled)
+                    this.scheduleNext(this.again ? 0 : wait > 0 ? wait : this.delay());
+            }
+        }
+
+        /**
+         * Follows the burst of changes in the sources.
+         *
+         * @return zero to update now, nanos to wait before looking again if
+         * the burst is not settled yet, or negative if there is no update.
+         */
+        private long settle() {
+            final long now = System.nanoTime();
+            // A single look at the sources, pendingVersion() only tells
+            // what this one saw.
+            if (!this.manager.hasUpdate())
+                return -1;
+            if (!this.burst) {
+                this.burst = true;
+                this.burstStart = now;
+                this.lastChange = now;
+                this.stamp = this.manager.pendingVersion();
+                return Math.min(this.quiet, this.interval);
+            }
+
+            final long stamp = this.manager.pendingVersion();
+            if (stamp != this.stamp) {
+                this.stamp = stamp;
+                this.lastChange = now;
+            }
+            final long left = Math.min(
+                this.lastChange + this.quiet - now,
+                this.burstStart + this.maxDelay - now);
+            return left > 0 ? Math.min(left, this.interval) : 0;
+        }
+
+        private void error(@NotNull final Throwable t) {
+            if (this.onError != null) {
+                this.onError.accept(t);
+                return;
+            }
+            final Thread current = Thread.currentThread();
+            current.getUncaughtExceptionHandler().uncaughtException(current, t);
+        }
+
+        private long delay() {
+            final long backoff = Math.min(1L << this.failures, MAX_BACKOFF);
+            final long base = this.interval > Long.MAX_VALUE / backoff
+                ? Long.MAX_VALUE
+                : this.interval * backoff;
+            final long extra = this.jitter == 0
+                ? 0
+                : ThreadLocalRandom.current().nextLong(this.jitter + 1);
+            return base > Long.MAX_VALUE - extra ? Long.MAX_VALUE : base + extra;
+        }
+
+        /**
+         * Must hold the lock of this.
+         */
+        private void scheduleNext(final long delayNanos) {
+            if (this.next != null)
+                this.next.cancel(false);
+            this.next = KonfigurationScheduler.this.executor.schedule(this, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+    }
+
+}
@@ -45,6 +45,9 @@ public interface LiteKonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Readers built from the mapper are reused for as
+     *                     long as the same instance is returned, so a
+     *                     shared mapper is better than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if jackson library is not in the classpath. it specifically looks
@@ -89,6 +92,9 @@ public interface LiteKonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Readers built from the mapper are reused for as
+     *                     long as the same instance is returned, so a
+     *                     shared mapper is better than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if jackson library is not in the classpath. it specifically looks
@@ -133,6 +139,9 @@ public interface LiteKonfigurationFactory {
      *                     a valid non-null ObjectMapper, and if required, it
      *                     ust be able to deserialize custom types, so that
      *                     {@link Konfiguration#custom(String, Kind)} works as well.
+     *                     Type adapters are reused for as long as the same
+     *                     instance is returned, so a shared Gson is better
+     *                     than a new one per call.
      * @return a konfig source.
      * @throws NullPointerException if any of its arguments are null.
      * @throws KfgSourceException   if jackson library is not in the classpath. it specifically looks
@@ -0,0 +1,48 @@
+package io.koosha.konfiguration;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Outcome of looking up a konfig key as a given type, see
+ * {@link Source#lookup(io.koosha.konfiguration.type.KeyPath, io.koosha.konfiguration.type.Kind)}
+ * and {@link K#lookup()}.
+ *
+ * <p>Lookups report their outcome instead of throwing, so probing for optional
+ * keys does not pay for exceptions.
+ */
+public enum Lookup {
+
+    /**
+     * Key exists and its value is of the requested type.
+     */
+    FOUND,
+
+    /**
+     * Key exists and its value is null.
+     */
+    NULL,
+
+    /**
+     * Key does not exist.
+     */
+    MISSING,
+
+    /**
+     * Key exists but its value can not be read as the requested type.
+     */
+    TYPE_MISMATCH,
+
+    ;
+
+    /**
+     * If the key exists and can be read as the requested type, that is the
+     * value is either {@link #FOUND} or {@link #NULL}.
+     *
+     * @return true if the key can be read.
+     */
+    @Contract(pure = true)
+    public boolean exists() {
+        return this == FOUND || this == NULL;
+    }
+
+}
@@ -1,5 +1,6 @@
 package io.koosha.konfiguration;
 
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -20,22 +21,23 @@ public abstract class Source implements Konfiguration {
 
     @Override
     @NotNull
-    public final K<Boolean> bool(@NotNull final String key) {
+    public final BoolK bool(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
 
         final Kind<Boolean> kind = Kind.BOOL;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
-            return this.null_(key, kind);
+        if (lookup == Lookup.NULL)
+            return DummyPrimitiveV.bool(this.null_(key, kind));
 
         final Object v = this.bool0(key);
         final Boolean vv = toBool(v);
         if (vv == null)
             throw new KfgTypeException(this.name(), key, kind, v);
-        return this.k(key, kind, vv);
+        return DummyPrimitiveV.bool(this.k(key, kind, vv));
     }
 
     @Override
@@ -45,10 +47,11 @@ public abstract class Source implements Konfiguration {
 
         final Kind<Character> kind = Kind.CHAR;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
+        if (lookup == Lookup.NULL)
             return this.null_(key, kind);
 
         final Object v = this.char0(key);
@@ -78,10 +81,11 @@ public abstract class Source implements Konfiguration {
 
         final Kind<String> kind = Kind.STRING;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
+        if (lookup == Lookup.NULL)
             return null_(key, kind);
 
         final Object v = this.string0(key);
@@ -104,10 +108,11 @@ public abstract class Source implements Konfiguration {
 
         final Kind<Byte> kind = Kind.BYTE;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
+        if (lookup == Lookup.NULL)
             return null_(key, kind);
 
         final Number v = this.number0(key);
@@ -126,10 +131,11 @@ public abstract class Source implements Konfiguration {
 
         final Kind<Short> kind = Kind.SHORT;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
+        if (lookup == Lookup.NULL)
             return null_(key, kind);
 
         final Number v = this.number0(key);
@@ -143,16 +149,17 @@ public abstract class Source implements Konfiguration {
 
     @Override
     @NotNull
-    public final K<Integer> int_(@NotNull final String key) {
+    public final IntK int_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
 
         final Kind<Integer> kind = Kind.INT;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
-            return null_(key, kind);
+        if (lookup == Lookup.NULL)
+            return DummyPrimitiveV.int_(this.null_(key, kind));
 
         final Number v = this.number0(key);
 
@@ -160,21 +167,22 @@ public abstract class Source implements Konfiguration {
         if (vv == null)
             throw new KfgTypeException(this.name(), key, kind, v);
 
-        return this.k(key, kind, vv.intValue());
+        return DummyPrimitiveV.int_(this.k(key, kind, vv.intValue()));
     }
 
     @Override
     @NotNull
-    public final K<Long> long_(@NotNull final String key) {
+    public final LongK long_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
 
         final Kind<Long> kind = Kind.LONG;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
-            return null_(key, kind);
+        if (lookup == Lookup.NULL)
+            return DummyPrimitiveV.long_(this.null_(key, kind));
 
         final Number v = this.number0(key);
 
@@ -182,7 +190,7 @@ public abstract class Source implements Konfiguration {
         if (vv == null)
             throw new KfgTypeException(this.name(), key, kind, v);
 
-        return this.k(key, kind, vv);
+        return DummyPrimitiveV.long_(this.k(key, kind, vv));
     }
 
     @Override
@@ -192,10 +200,11 @@ public abstract class Source implements Konfiguration {
 
         final Kind<Float> kind = Kind.FLOAT;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
+        if (lookup == Lookup.NULL)
             return null_(key, kind);
 
         final Number v = this.numberDouble0(key);
@@ -209,16 +218,17 @@ public abstract class Source implements Konfiguration {
 
     @Override
     @NotNull
-    public final K<Double> double_(@NotNull final String key) {
+    public final DoubleK double_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
 
         final Kind<Double> kind = Kind.DOUBLE;
 
-        if (!this.has(key, kind))
+        final Lookup lookup = this.lookup(key, kind);
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, kind);
 
-        if (this.isNull(key))
-            return null_(key, kind);
+        if (lookup == Lookup.NULL)
+            return DummyPrimitiveV.double_(this.null_(key, kind));
 
         final Number v = this.numberDouble0(key);
 
@@ -226,7 +236,7 @@ public abstract class Source implements Konfiguration {
         if (vv == null)
             throw new KfgTypeException(this.name(), key, kind, v);
 
-        return this.k(key, kind, vv);
+        return DummyPrimitiveV.double_(this.k(key, kind, vv));
     }
 
     @Override
@@ -235,12 +245,13 @@ public abstract class Source implements Konfiguration {
                                      @NotNull final Kind<U> type) {
         Objects.requireNonNull(key, "key");
 
-        if (!this.has(key, type.asList()))
+        final Lookup lookup = this.lookup(key, type.asList());
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, type);
 
         final Kind<List<U>> listKind = type.asList();
 
-        if (this.isNull(key))
+        if (lookup == Lookup.NULL)
             return null_(key, listKind);
 
         final List<?> v = this.list0(key, type);
@@ -256,12 +267,13 @@ public abstract class Source implements Konfiguration {
                                    @NotNull final Kind<U> type) {
         Objects.requireNonNull(key, "key");
 
-        if (!this.has(key, type.asSet()))
+        final Lookup lookup = this.lookup(key, type.asSet());
+        if (!lookup.exists())
             throw new KfgMissingKeyException(this.name(), key, type);
 
         final Kind<Set<U>> setKind = type.asSet();
 
-        if (this.isNull(key))
+        if (lookup == Lookup.NULL)
             return null_(key, setKind);
 
         final Object v = this.set0(key, type);
@@ -287,12 +299,7 @@ public abstract class Source implements Konfiguration {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        if (!this.has(key, type))
-            throw new KfgMissingKeyException(this.name(), key, type);
-
-        if (this.isNull(key))
-            return null_(key, type);
-
+        // These check the key themselves.
         if (type.isBool())
             return (K<U>) bool(key);
         if (type.isChar())
@@ -318,7 +325,10 @@ public abstract class Source implements Konfiguration {
         if (type.isSet())
             return (K<U>) set(key, type.getCollectionContainedKind());
 
-        return this.k(key, type, this.custom0(key, type));
+        final K<U> resolved = this.resolve(KeyPath.of(key), type);
+        if (!resolved.exists())
+            throw new KfgMissingKeyException(this.name(), key, type);
+        return resolved;
     }
 
     // =========================================================================
@@ -332,6 +342,120 @@ public abstract class Source implements Konfiguration {
     }
 
 
+    /**
+     * Look up key as the given type, without throwing if the key is missing
+     * or holds a value of another type.
+     *
+     * <p>The default implementation is based on {@link #has(KeyPath, Kind)}
+     * and {@link #isNull(String)}, and reports a type mismatch as a missing
+     * key. Sources able to tell them apart (cheaply) should override it.
+     *
+     * @param key  the key to look up.
+     * @param type type of konfiguration value.
+     * @return outcome of the look up.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public Lookup lookup(@NotNull final KeyPath key,
+                         @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        if (!this.has(key, type))
+            return Lookup.MISSING;
+        return this.isNull(key.key()) ? Lookup.NULL : Lookup.FOUND;
+    }
+
+    /**
+     * Look up and read key as the given type in one go.
+     *
+     * <p>Unlike a {@link #has(KeyPath, Kind)} followed by a
+     * {@link #custom(String, Kind)}, custom values are deserialized only once.
+     * Missing keys and values not readable as type are reported as a missing
+     * value (see {@link K#exists()}) instead of an exception.
+     *
+     * <p>The default implementation reads custom values with
+     * {@link #custom0(String, Kind)} after a {@link #lookup(KeyPath, Kind)}.
+     * Sources whose lookup of custom values already deserializes them should
+     * override it.
+     *
+     * @param key  the key to read.
+     * @param type type of konfiguration value.
+     * @param <U>  generic type of value.
+     * @return the value, or a missing value.
+     */
+    @NotNull
+    public <U> K<U> resolve(@NotNull final KeyPath key,
+                            @NotNull final Kind<U> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        final Lookup lookup = this.lookup(key, type);
+        if (!lookup.exists())
+            return DummyV.missing(type, key.key());
+
+        if (type.isBuiltin())
+            return this.custom(key.key(), type);
+
+        if (lookup == Lookup.NULL)
+            return this.null_(key.key(), type);
+
+        return this.k(key.key(), type, this.custom0(key.key(), type));
+    }
+
+    /**
+     * All the keys this source has a value for, including keys of nested
+     * (non-leaf) values, so that a kombiner can index its sources by key.
+     *
+     * <p>May contain keys this source does not actually have, but must not
+     * miss any key it does have. The default implementation returns null,
+     * meaning this source can not enumerate its keys and has to be asked for
+     * each and every key.
+     *
+     * @return keys of this source, or null if they can not be enumerated.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Set<String> keys() {
+        return null;
+    }
+
+    /**
+     * Keys whose value might differ between previous and this source, where
+     * this source is (possibly a copy of) an {@link #updatedCopy()} of
+     * previous. The parents of a changed key count as changed too.
+     *
+     * <p>Lets a kombiner re-read only the changed keys on update. May contain
+     * keys that did not actually change, but must not miss any that did. The
+     * default implementation returns null, meaning anything might have
+     * changed.
+     *
+     * @param previous the source this source was updated from.
+     * @return changed keys, or null if they can not be told.
+     */
+    @Nullable
+    @Contract(pure = true)
+    public Set<String> changedKeys(@NotNull final Source previous) {
+        Objects.requireNonNull(previous, "previous");
+        return null;
+    }
+
+    /**
+     * Same as {@link #lookup(KeyPath, Kind)}.
+     *
+     * @param key  the key to look up.
+     * @param type type of konfiguration value.
+     * @return outcome of the look up.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public final Lookup lookup(@NotNull final String key,
+                               @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        return this.lookup(KeyPath.of(key), type);
+    }
+
+
     protected abstract boolean isNull(@NotNull String key);
 
     @NotNull
@@ -577,6 +701,30 @@ public abstract class Source implements Konfiguration {
                 + ", key=" + key);
     }
 
+    @Contract("_, _ -> fail")
+    @Override
+    @NotNull
+    public final Handle register(@NotNull final BatchKeyObserver observer,
+                                 @NotNull final Collection<String> keys) {
+        throw new KfgAssertionException(
+            this.name(), null, null, null,
+            "register(observer, keys) shouldn't be called on classes extending="
+                + getClass().getName() + ", observer=" + observer
+                + ", keys=" + keys);
+    }
+
+    @Contract("_, _ -> fail")
+    @Override
+    @NotNull
+    public final Handle registerSoft(@NotNull final BatchKeyObserver observer,
+                                     @NotNull final Collection<String> keys) {
+        throw new KfgAssertionException(
+            this.name(), null, null, null,
+            "registerSoft(observer, keys) shouldn't be called on classes extending="
+                + getClass().getName() + ", observer=" + observer
+                + ", keys=" + keys);
+    }
+
     @Contract("_, _ -> fail")
     @Override
     public final void deregister(@NotNull final Handle observer,
@@ -630,4 +778,23 @@ public abstract class Source implements Konfiguration {
     @Contract(pure = true)
     public abstract boolean hasUpdate();
 
+    /**
+     * A stamp of the content in the origin of this source as seen by the last
+     * call to {@link #hasUpdate()}, which changes whenever the origin changes
+     * again, so that a burst of changes can be told apart from a single one
+     * and coalesced into a single update. It must not look at the origin
+     * itself, {@link #hasUpdate()} already did.
+     *
+     * <p>The default implementation never changes, so a burst is only waited
+     * for since it's first seen.
+     *
+     * <p>NOT Thread-safe.
+     *
+     * @return stamp of the content in the origin of this source.
+     */
+    @Contract(pure = true)
+    public long pendingVersion() {
+        return 0;
+    }
+
 }
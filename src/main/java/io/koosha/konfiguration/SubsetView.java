@@ -1,14 +1,18 @@
 package io.koosha.konfiguration;
 
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.ThreadSafe;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Read only subset view of a konfiguration. Prepends a pre-defined key
@@ -22,10 +26,23 @@ import java.util.Set;
 @ThreadSafe
 public final class SubsetView implements Konfiguration {
 
+    /**
+     * Max number of prefixed paths kept by {@link #paths}, beyond that they
+     * are made on each call.
+     */
+    private static final int MAX_PATHS = 1024;
+
     private final String name;
     private final Konfiguration wrapped;
     private final String baseKey;
 
+    /**
+     * Prefixed path of each path asked through {@link #has(KeyPath, Kind)},
+     * so that the prefixed key is not concatenated and looked up in the table
+     * of interned paths on each call.
+     */
+    private final ConcurrentHashMap<KeyPath, KeyPath> paths = new ConcurrentHashMap<>();
+
     public SubsetView(@NotNull final String name,
                       @NotNull final Konfiguration wrappedKonfiguration,
                       @NotNull final String baseKey) {
@@ -59,7 +76,7 @@ public final class SubsetView implements Konfiguration {
     @Contract(pure = true)
     @Override
     @NotNull
-    public K<Boolean> bool(@NotNull final String key) {
+    public BoolK bool(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
         return wrapped.bool(key(key));
     }
@@ -91,7 +108,7 @@ public final class SubsetView implements Konfiguration {
     @Contract(pure = true)
     @NotNull
     @Override
-    public K<Integer> int_(@NotNull final String key) {
+    public IntK int_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
         return wrapped.int_(key(key));
     }
@@ -99,7 +116,7 @@ public final class SubsetView implements Konfiguration {
     @Contract(pure = true)
     @NotNull
     @Override
-    public K<Long> long_(@NotNull final String key) {
+    public LongK long_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
         return wrapped.long_(key(key));
     }
@@ -115,7 +132,7 @@ public final class SubsetView implements Konfiguration {
     @Contract(pure = true)
     @NotNull
     @Override
-    public K<Double> double_(@NotNull final String key) {
+    public DoubleK double_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
         return wrapped.double_(key(key));
     }
@@ -163,6 +180,14 @@ public final class SubsetView implements Konfiguration {
         return wrapped.has(key(key), type);
     }
 
+    @Contract(pure = true)
+    @Override
+    public boolean has(@NotNull final KeyPath key,
+                       @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        return wrapped.has(this.path(key), type);
+    }
+
     @Contract(pure = true)
     @NotNull
     @Override
@@ -192,6 +217,26 @@ public final class SubsetView implements Konfiguration {
         return this.wrapped.register(observer, key(key));
     }
 
+    @Contract(pure = true)
+    @Override
+    @NotNull
+    public Handle register(@NotNull final BatchKeyObserver observer,
+                           @NotNull final Collection<String> keys) {
+        Objects.requireNonNull(observer, "observer");
+        Objects.requireNonNull(keys, "keys");
+        return this.wrapped.register(observer, this.keys(keys));
+    }
+
+    @Contract(pure = true)
+    @Override
+    @NotNull
+    public Handle registerSoft(@NotNull final BatchKeyObserver observer,
+                               @NotNull final Collection<String> keys) {
+        Objects.requireNonNull(observer, "observer");
+        Objects.requireNonNull(keys, "keys");
+        return this.wrapped.registerSoft(observer, this.keys(keys));
+    }
+
     @Contract(pure = true,
               value = "_ -> _")
     @NotNull
@@ -215,6 +260,18 @@ public final class SubsetView implements Konfiguration {
         return Optional.empty();
     }
 
+    @NotNull
+    private KeyPath path(@NotNull final KeyPath key) {
+        final KeyPath cached = this.paths.get(key);
+        if (cached != null)
+            return cached;
+
+        final KeyPath path = KeyPath.of(this.key(key.key()));
+        if (this.paths.size() < MAX_PATHS)
+            this.paths.putIfAbsent(key, path);
+        return path;
+    }
+
     @Contract(pure = true,
               value = "_ -> _")
     @NotNull
@@ -229,4 +286,12 @@ public final class SubsetView implements Konfiguration {
         return this.baseKey + key;
     }
 
+    @NotNull
+    private Collection<String> keys(@NotNull final Collection<String> keys) {
+        final List<String> mapped = new ArrayList<>(keys.size());
+        for (final String key : keys)
+            mapped.add(this.key(key));
+        return mapped;
+    }
+
 }
@@ -0,0 +1,412 @@
+package io.koosha.konfiguration.impl;
+
+import io.koosha.konfiguration.KfgSourceException;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Supplies the bytes of a file, and tells when it might have changed using
+ * the file system's {@link WatchService}, so that the file is not read on each
+ * poll.
+ *
+ * <p>The file's directory is watched rather than the file itself, so that
+ * replacing the file by an atomic rename (or swapping a symlink, as kubernetes
+ * does with mounted config maps) is seen too. Any event in the directory marks
+ * the file as possibly changed, the fingerprint check of
+ * {@link ExtSourceFetcher} drops the false positives.
+ *
+ * <p>Bursts of events are debounced: the version moves only once the directory
+ * has been quiet for {@link #DEBOUNCE_NANOS}, so a file being written is not
+ * read half way through.
+ *
+ * <p>An event moves the version only if the file's size, modification time or
+ * identity (e.g. inode) differ from those of the last read, so events on
+ * siblings do not cause the file to be read and hashed again.
+ *
+ * <p>The file is always read onto the heap, never memory mapped: a mapped file
+ * being truncated by a writer fails the reader with an {@link InternalError}
+ * (SIGBUS) instead of an exception.
+ *
+ * <p>If the directory can not be watched (anymore), the version moves on every
+ * call, falling back to reading the file on each poll.
+ *
+ * <p>The watcher holds the watches weakly, a watch no source uses anymore is
+ * dropped, and so is the directory's registration once it has no watch left.
+ */
+@ThreadSafe
+@ApiStatus.Internal
+final class ExtFileWatch implements ExtSourceFetcher.Versioned<ByteBuffer> {
+
+    static final long DEBOUNCE_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @NotNull
+    private final String name;
+
+    @NotNull
+    private final Path file;
+
+    @NotNull
+    private final Path dir;
+
+    // All guarded by this.
+    private long version;
+    private boolean watched;
+    private boolean pending;
+    private long lastEvent;
+
+    private volatile long readVersion;
+
+    /**
+     * Attributes of the file as of right before the last {@link #get()}.
+     */
+    @Nullable
+    private volatile Stamp read;
+
+    /**
+     * @param name name of the owning source, for error messages.
+     * @param file the file to read.
+     * @throws KfgSourceException if the file's directory can not be watched.
+     */
+    ExtFileWatch(@NotNull final String name,
+                 @NotNull final Path file) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(file, "file");
+
+        this.name = name;
+        this.file = file.toAbsolutePath().normalize();
+        final Path dir = this.file.getParent();
+        if (dir == null)
+            throw new KfgSourceException(name, "not a file: " + file);
+        this.dir = dir;
+
+        synchronized (this) {
+            this.watched = Watcher.register(this);
+            if (!this.watched)
+                throw new KfgSourceException(name, "can not watch directory: " + dir);
+        }
+    }
+
+    /**
+     * Called by the watcher on events in the directory.
+     */
+    private synchronized void touched() {
+        this.pending = true;
+        this.lastEvent = System.nanoTime();
+    }
+
+    /**
+     * Called by the watcher when the directory is no longer watched, e.g.
+     * when it's deleted.
+     */
+    private synchronized void unwatched() {
+        this.watched = false;
+        this.touched();
+    }
+
+    @Override
+    public synchronized long version() {
+        if (this.pending && System.nanoTime() - this.lastEvent >= DEBOUNCE_NANOS) {
+            this.pending = false;
+            final Stamp read = this.read;
+            if (read == null || !read.equals(this.stamp()))
+                this.version++;
+        }
+
+        if (!this.watched)
+            this.watched = Watcher.register(this);
+        if (!this.watched)
+            this.version++;
+
+        return this.version;
+    }
+
+    @Override
+    public long readVersion() {
+        return this.readVersion;
+    }
+
+    /**
+     * If any watch is registered on the directory.
+     *
+     * @param dir the directory.
+     * @return true if the directory is being watched.
+     */
+    static boolean isWatched(@NotNull final Path dir) {
+        Objects.requireNonNull(dir, "dir");
+        final Watcher watcher = Watcher.watchers.get(dir.getFileSystem());
+        return watcher != null && watcher.isWatched(dir.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Attributes of the file, or null if they can not be read.
+     */
+    @Nullable
+    private Stamp stamp() {
+        try {
+            return new Stamp(Files.readAttributes(this.file, BasicFileAttributes.class));
+        }
+        catch (final IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the file.
+     *
+     * @return content of the file.
+     * @throws KfgSourceException if the file can not be read.
+     */
+    @NotNull
+    @Override
+    public ByteBuffer get() {
+        final long version = this.version();
+        // Taken before reading, a change meanwhile is seen by the next poll.
+        final Stamp stamp = this.stamp();
+        final ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new KfgSourceException(this.name, "file too large: " + this.file);
+            content = read(channel, (int) size);
+        }
+        catch (final IOException e) {
+            throw new KfgSourceException(this.name, "error reading file: " + this.file, e);
+        }
+        this.read = stamp;
+        this.readVersion = version;
+        return content;
+    }
+
+    @NotNull
+    private static ByteBuffer read(@NotNull final FileChannel channel,
+                                   final int size) throws IOException {
+        // Size is a hint, the file might be changing.
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(size, 64));
+        while (channel.read(buffer) >= 0)
+            if (!buffer.hasRemaining()) {
+                final ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                bigger.put(buffer);
+                buffer = bigger;
+            }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads the file as a properties file.
+     *
+     * @return properties in the file.
+     * @throws KfgSourceException if the file can not be read or parsed.
+     */
+    @NotNull
+    Map<String, ?> properties() {
+        final Properties properties = new Properties();
+        try {
+            properties.load(ExtSourcePayload.reader(this.get()));
+        }
+        catch (final IOException | IllegalArgumentException e) {
+            throw new KfgSourceException(this.name, "error parsing properties file: " + this.file, e);
+        }
+
+        final Map<String, Object> map = new HashMap<>();
+        for (final String key : properties.stringPropertyNames())
+            map.put(key, properties.getProperty(key));
+        return map;
+    }
+
+
+    /**
+     * What tells a file is changed without reading it.
+     */
+    @Immutable
+    private static final class Stamp {
+
+        private final long size;
+
+        @NotNull
+        private final FileTime modified;
+
+        @Nullable
+        private final Object key;
+
+        private Stamp(@NotNull final BasicFileAttributes attributes) {
+            this.size = attributes.size();
+            this.modified = attributes.lastModifiedTime();
+            this.key = attributes.fileKey();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Stamp))
+                return false;
+            final Stamp stamp = (Stamp) o;
+            return this.size == stamp.size
+                && this.modified.equals(stamp.modified)
+                && Objects.equals(this.key, stamp.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.size, this.modified, this.key);
+        }
+
+    }
+
+    /**
+     * One daemon thread per file system, waiting on its watch service and
+     * passing the events to watches of the directories. The watches are held
+     * weakly, a directory's registration is cancelled once none of its
+     * watches is reachable anymore (checked on events and registrations).
+     */
+    private static final class Watcher implements Runnable {
+
+        private static final ConcurrentHashMap<FileSystem, Watcher> watchers = new ConcurrentHashMap<>();
+
+        @NotNull
+        private final WatchService service;
+
+        // Guarded by this, and so are the sets.
+        private final Map<WatchKey, Set<ExtFileWatch>> watches = new HashMap<>();
+
+        private Watcher(@NotNull final WatchService service) {
+            this.service = service;
+        }
+
+        @NotNull
+        private static Watcher start(@NotNull final FileSystem fileSystem) {
+            final Watcher watcher;
+            try {
+                watcher = new Watcher(fileSystem.newWatchService());
+            }
+            catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            final Thread thread = new Thread(watcher, "konfiguration-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+            return watcher;
+        }
+
+        /**
+         * @return true if the directory of the watch is being watched.
+         */
+        private static boolean register(@NotNull final ExtFileWatch watch) {
+            final Watcher watcher;
+            try {
+                watcher = watchers.computeIfAbsent(watch.dir.getFileSystem(), Watcher::start);
+            }
+            catch (final UncheckedIOException | UnsupportedOperationException e) {
+                return false;
+            }
+            return watcher.add(watch);
+        }
+
+        private synchronized boolean add(@NotNull final ExtFileWatch watch) {
+            final WatchKey key;
+            try {
+                key = watch.dir.register(this.service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            }
+            catch (final IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+                return false;
+            }
+            this.watches.computeIfAbsent(key, k -> Collections.newSetFromMap(new WeakHashMap<>())).add(watch);
+            this.purge();
+            return true;
+        }
+
+        /**
+         * Copy of the live watches of the key, cancels the key if there is
+         * none.
+         */
+        @Nullable
+        private synchronized List<ExtFileWatch> watches(@NotNull final WatchKey key,
+                                                        final boolean remove) {
+            final Set<ExtFileWatch> watches = remove ? this.watches.remove(key) : this.watches.get(key);
+            final List<ExtFileWatch> copy = watches == null ? null : new ArrayList<>(watches);
+            this.purge();
+            return copy;
+        }
+
+        /**
+         * Must hold the lock of this. Cancels the keys with no watch left.
+         */
+        private void purge() {
+            final Iterator<Map.Entry<WatchKey, Set<ExtFileWatch>>> entries = this.watches.entrySet().iterator();
+            while (entries.hasNext()) {
+                final Map.Entry<WatchKey, Set<ExtFileWatch>> entry = entries.next();
+                if (entry.getValue().isEmpty()) {
+                    entry.getKey().cancel();
+                    entries.remove();
+                }
+            }
+        }
+
+        private synchronized boolean isWatched(@NotNull final Path dir) {
+            this.purge();
+            return this.watches.keySet().stream().anyMatch(key -> dir.equals(key.watchable()));
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final WatchKey key;
+                try {
+                    key = this.service.take();
+                }
+                catch (final InterruptedException | ClosedWatchServiceException e) {
+                    return;
+                }
+
+                // Which file changed does not matter, see class doc.
+                key.pollEvents();
+                final boolean valid = key.reset();
+
+                final List<ExtFileWatch> watches = this.watches(key, !valid);
+                if (watches != null)
+                    for (final ExtFileWatch watch : watches)
+                        if (valid)
+                            watch.touched();
+                        else
+                            watch.unwatched();
+            }
+        }
+
+    }
+
+}
@@ -5,21 +5,22 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.TypeAdapter;
 import io.koosha.konfiguration.KfgMissingKeyException;
 import io.koosha.konfiguration.KfgSourceException;
 import io.koosha.konfiguration.KfgTypeException;
 import io.koosha.konfiguration.LiteKonfiguration;
 import io.koosha.konfiguration.LiteSource;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.ThreadSafe;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,16 +29,13 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
-import java.util.regex.Pattern;
 
 @ThreadSafe
 final class ExtGsonJsonLiteSource extends LiteSource {
 
-    private static final Pattern DOT_PATTERN = Pattern.compile("\\.");
-
     @SuppressWarnings("FieldCanBeLocal")
     private final String json;
-    private final Supplier<Gson> mapperSupplier;
+    private final ExtGsonSourceAdapters adapters;
     private final JsonObject root;
     private final Object LOCK = new Object();
 
@@ -51,11 +49,12 @@ final class ExtGsonJsonLiteSource extends LiteSource {
         if (key.isEmpty())
             throw new KfgMissingKeyException(this.name(), key, "empty konfig key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         JsonElement node = this.root;
         synchronized (LOCK) {
-            for (final String sub : split) {
+            for (int i = 0; i < path.size(); i++) {
+                final String sub = path.part(i);
                 if (!(node instanceof JsonObject))
                     return null;
                 if (!((JsonObject) node).has(sub))
@@ -80,20 +79,19 @@ final class ExtGsonJsonLiteSource extends LiteSource {
     }
 
     @Contract(mutates = "this")
-    private JsonObject ensureIntermediateNodes(@NotNull final String[] key,
-                                               @NotNull final String keyJoined) {
+    private JsonObject ensureIntermediateNodes(@NotNull final KeyPath key) {
         JsonObject from = this.root;
 
-        for (int i = 0; i < key.length - 1; i++) {
-            JsonElement next = from.get(key[i]);
+        for (int i = 0; i < key.size() - 1; i++) {
+            JsonElement next = from.get(key.part(i));
             if (next == null) {
-                from.add(key[i], new JsonObject());
-                next = from.get(key[i]);
+                from.add(key.part(i), new JsonObject());
+                next = from.get(key.part(i));
             }
             else if (!(next instanceof JsonObject)) {
                 throw new KfgTypeException(
-                    this.name, keyJoined, null, null,
-                    "expected all objects in path, found=" + next + " at=" + key[i]);
+                    this.name, key.key(), null, null,
+                    "expected all objects in path, found=" + next + " at=" + key.part(i));
             }
             from = (JsonObject) next;
         }
@@ -102,17 +100,16 @@ final class ExtGsonJsonLiteSource extends LiteSource {
     }
 
     @Contract(pure = true)
-    private Optional<JsonObject> ensureIntermediateNodesOrNull(@NotNull final String[] key,
-                                                               @NotNull final String keyJoined) {
+    private Optional<JsonObject> ensureIntermediateNodesOrNull(@NotNull final KeyPath key) {
         JsonObject from = this.root;
 
-        for (int i = 0; i < key.length - 1; i++) {
-            JsonElement next = from.get(key[i]);
+        for (int i = 0; i < key.size() - 1; i++) {
+            JsonElement next = from.get(key.part(i));
             if (next == null)
                 return Optional.empty();
             else if (!(next instanceof JsonObject))
-                throw new KfgTypeException(this.name, keyJoined, null, null,
-                    "expected all objects in path, found=" + next + " at=" + key[i]);
+                throw new KfgTypeException(this.name, key.key(), null, null,
+                    "expected all objects in path, found=" + next + " at=" + key.part(i));
             from = (JsonObject) next;
         }
 
@@ -123,19 +120,24 @@ final class ExtGsonJsonLiteSource extends LiteSource {
     ExtGsonJsonLiteSource(@NotNull final String name,
                           @NotNull final String json,
                           @NotNull final Supplier<Gson> objectMapper) {
+        this(name, json, new ExtGsonSourceAdapters(
+            Objects.requireNonNull(objectMapper, "objectMapper")));
+    }
+
+    private ExtGsonJsonLiteSource(@NotNull final String name,
+                                  @NotNull final String json,
+                                  @NotNull final ExtGsonSourceAdapters adapters) {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(json, "json");
-        Objects.requireNonNull(objectMapper, "objectMapper");
+        Objects.requireNonNull(adapters, "adapters");
 
         this.name = name;
         this.json = json;
-        this.mapperSupplier = objectMapper;
-
-        Objects.requireNonNull(this.mapperSupplier.get(), "supplied mapper is null");
+        this.adapters = adapters;
 
         final JsonObject update;
         try {
-            update = this.mapperSupplier.get().fromJson(this.json, JsonObject.class);
+            update = this.adapters.mapper().fromJson(this.json, JsonObject.class);
         }
         catch (final JsonSyntaxException e) {
             throw new KfgSourceException(this.name(), "error parsing json string", e);
@@ -220,20 +222,18 @@ final class ExtGsonJsonLiteSource extends LiteSource {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final Gson reader = this.mapperSupplier.get();
+        final TypeAdapter<?> reader = this.adapters.adapter(type);
 
         final JsonElement at = node(key);
         ExtGsonSourceHelper.checkJsonType(at.isJsonArray(), this.name(), type, at, key);
         final JsonArray asJsonArray = at.getAsJsonArray();
 
-        final Type typeToken = TypeToken.get(type.type()).getType();
-
-        final List<?> asList = new ArrayList<>(asJsonArray.size());
+        final List<Object> asList = new ArrayList<>(asJsonArray.size());
         for (final JsonElement jsonElement : asJsonArray)
             try {
-                asList.add(reader.fromJson(jsonElement, typeToken));
+                asList.add(reader.fromJsonTree(jsonElement));
             }
-            catch (final JsonSyntaxException e) {
+            catch (final JsonParseException | IllegalStateException e) {
                 throw new KfgSourceException(this.name(), key, type, null, "gson error", e);
             }
 
@@ -247,16 +247,14 @@ final class ExtGsonJsonLiteSource extends LiteSource {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final Gson reader = this.mapperSupplier.get();
+        final TypeAdapter<?> reader = this.adapters.adapter(type);
         final JsonElement node = this.node(key);
 
-        final Type typeToken = TypeToken.get(type.type()).getType();
-
         Object ret;
         try {
-            ret = reader.fromJson(node, typeToken);
+            ret = reader.fromJsonTree(node);
         }
-        catch (final JsonSyntaxException e) {
+        catch (final JsonParseException | IllegalStateException e) {
             throw new KfgTypeException(this.name(), key, type, null, "gson error", e);
         }
 
@@ -284,9 +282,9 @@ final class ExtGsonJsonLiteSource extends LiteSource {
 
         if (key.contains(".")) {
             final String field = key.substring(key.lastIndexOf('.') + 1);
-            final String[] split = DOT_PATTERN.split(key);
+            final KeyPath path = KeyPath.of(key);
             synchronized (LOCK) {
-                this.ensureIntermediateNodesOrNull(split, key)
+                this.ensureIntermediateNodesOrNull(path)
                     .ifPresent(node -> node.remove(field));
             }
         }
@@ -318,7 +316,7 @@ final class ExtGsonJsonLiteSource extends LiteSource {
             this.custom0(key, type);
             return true;
         }
-        catch (final Throwable t) {
+        catch (final RuntimeException e) {
             return false;
         }
     }
@@ -331,7 +329,7 @@ final class ExtGsonJsonLiteSource extends LiteSource {
     @Override
     @NotNull
     public LiteKonfiguration toWritableCopy() {
-        return new ExtGsonJsonLiteSource(this.name, this.serialize(), this.mapperSupplier);
+        return new ExtGsonJsonLiteSource(this.name, this.serialize(), this.adapters);
     }
 
     @Override
@@ -348,15 +346,15 @@ final class ExtGsonJsonLiteSource extends LiteSource {
                                  @Nullable final Boolean value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         final JsonElement serialized = value == null
             ? JsonNull.INSTANCE
             : new JsonPrimitive(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .add(split[split.length - 1], serialized);
+            this.ensureIntermediateNodes(path)
+                .add(path.last(), serialized);
         }
 
         return this;
@@ -414,15 +412,15 @@ final class ExtGsonJsonLiteSource extends LiteSource {
                                         @Nullable final Number value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         final JsonElement serialized = value == null
             ? JsonNull.INSTANCE
             : new JsonPrimitive(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .add(split[split.length - 1], serialized);
+            this.ensureIntermediateNodes(path)
+                .add(path.last(), serialized);
         }
         return this;
     }
@@ -434,15 +432,15 @@ final class ExtGsonJsonLiteSource extends LiteSource {
                                  @Nullable final String value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         final JsonElement serialized = value == null
             ? JsonNull.INSTANCE
             : new JsonPrimitive(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .add(split[split.length - 1], serialized);
+            this.ensureIntermediateNodes(path)
+                .add(path.last(), serialized);
         }
 
         return this;
@@ -468,16 +466,16 @@ final class ExtGsonJsonLiteSource extends LiteSource {
                                             @Nullable final Collection<?> value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
-        final Gson objectMapper = this.mapperSupplier.get();
+        final KeyPath path = KeyPath.of(key);
+        final Gson objectMapper = this.adapters.mapper();
 
         final JsonElement serialize = value == null
             ? JsonNull.INSTANCE
             : objectMapper.toJsonTree(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .add(split[split.length - 1], serialize);
+            this.ensureIntermediateNodes(path)
+                .add(path.last(), serialize);
         }
 
         return this;
@@ -490,16 +488,16 @@ final class ExtGsonJsonLiteSource extends LiteSource {
                                        @Nullable final Object value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
-        final Gson objectMapper = this.mapperSupplier.get();
+        final KeyPath path = KeyPath.of(key);
+        final Gson objectMapper = this.adapters.mapper();
 
         final JsonElement serialize = value == null
             ? JsonNull.INSTANCE
             : objectMapper.toJsonTree(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .add(split[split.length - 1], serialize);
+            this.ensureIntermediateNodes(path)
+                .add(path.last(), serialize);
         }
 
         return this;
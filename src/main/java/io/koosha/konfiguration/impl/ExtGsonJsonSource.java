@@ -4,13 +4,19 @@ package io.koosha.konfiguration.impl;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.TypeAdapter;
+import io.koosha.konfiguration.DummyV;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KfgMissingKeyException;
 import io.koosha.konfiguration.KfgSourceException;
 import io.koosha.konfiguration.KfgTypeException;
+import io.koosha.konfiguration.Lookup;
 import io.koosha.konfiguration.Source;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.Immutable;
 import net.jcip.annotations.ThreadSafe;
@@ -19,14 +25,15 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Supplier;
-import java.util.regex.Pattern;
 
 import static io.koosha.konfiguration.impl.ExtGsonSourceHelper.checkJsonType;
 import static io.koosha.konfiguration.impl.ExtGsonSourceHelper.typeMatches;
@@ -36,29 +43,33 @@ import static io.koosha.konfiguration.impl.ExtGsonSourceHelper.typeMatches;
 @ApiStatus.Internal
 public final class ExtGsonJsonSource extends Source {
 
-    private static final String DOT_PATTERN = Pattern.quote(".");
-
-    private final Supplier<Gson> mapperSupplier;
-    private final Supplier<String> json;
-    private final String lastJson;
+    private final ExtGsonSourceAdapters adapters;
+    private final ExtSourceFetcher fetcher;
     private final JsonObject root;
     private final Object LOCK = new Object();
 
     @NotNull
     private final String name;
 
+    /**
+     * Every dotted path of {@link #root} (through objects, including
+     * intermediate objects) to its element, computed on first use. See
+     * {@link #keys()} and {@link #changedKeys(Source)}.
+     */
     @Nullable
-    private JsonElement node_(@NotNull final String key) {
-        Objects.requireNonNull(key, "key");
+    private volatile Map<String, JsonElement> flat;
 
-        if (key.isEmpty())
-            throw new KfgMissingKeyException(this.name(), key, "empty konfig key");
+    @Nullable
+    private JsonElement node_(@NotNull final KeyPath key) {
+        Objects.requireNonNull(key, "key");
 
-        final String[] split = key.split(DOT_PATTERN);
+        if (key.key().isEmpty())
+            throw new KfgMissingKeyException(this.name(), key.key(), "empty konfig key");
 
         JsonElement node = this.root;
         synchronized (LOCK) {
-            for (final String sub : split) {
+            for (int i = 0; i < key.size(); i++) {
+                final String sub = key.part(i);
                 if (!(node instanceof JsonObject))
                     return null;
                 if (!((JsonObject) node).has(sub))
@@ -76,7 +87,7 @@ public final class ExtGsonJsonSource extends Source {
         if (key.isEmpty())
             throw new KfgMissingKeyException(this.name(), key, "empty konfig key");
 
-        final JsonElement node = node_(key);
+        final JsonElement node = node_(KeyPath.of(key));
         if (node == null)
             throw new KfgMissingKeyException(this.name(), key);
         return node;
@@ -86,23 +97,46 @@ public final class ExtGsonJsonSource extends Source {
     ExtGsonJsonSource(@NotNull final String name,
                       @NotNull final Supplier<String> jsonSupplier,
                       @NotNull final Supplier<Gson> objectMapper) {
+        this(name,
+            Objects.requireNonNull(jsonSupplier, "jsonSupplier"),
+            new ExtGsonSourceAdapters(Objects.requireNonNull(objectMapper, "objectMapper")),
+            Objects.requireNonNull(jsonSupplier.get(), "supplied json is null"));
+    }
+
+    /**
+     * Same as {@link #ExtGsonJsonSource(String, Supplier, Supplier)} but reads
+     * the supplied UTF-8 bytes as a stream, without decoding them into a
+     * string first.
+     */
+    @NotNull
+    static ExtGsonJsonSource bytes(@NotNull final String name,
+                                   @NotNull final Supplier<ByteBuffer> jsonSupplier,
+                                   @NotNull final Supplier<Gson> objectMapper) {
+        Objects.requireNonNull(jsonSupplier, "jsonSupplier");
+        return new ExtGsonJsonSource(name,
+            jsonSupplier,
+            new ExtGsonSourceAdapters(Objects.requireNonNull(objectMapper, "objectMapper")),
+            Objects.requireNonNull(jsonSupplier.get(), "supplied json is null"));
+    }
+
+    private ExtGsonJsonSource(@NotNull final String name,
+                              @NotNull final Supplier<?> jsonSupplier,
+                              @NotNull final ExtGsonSourceAdapters adapters,
+                              @NotNull final Object json) {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(jsonSupplier, "jsonSupplier");
-        Objects.requireNonNull(objectMapper, "objectMapper");
+        Objects.requireNonNull(adapters, "adapters");
+        ExtSourcePayload.check(json, "json");
 
         this.name = name;
-        this.json = jsonSupplier;
-        this.mapperSupplier = objectMapper;
-        this.lastJson = this.json.get();
-
-        Objects.requireNonNull(this.lastJson, "supplied json is null");
-        Objects.requireNonNull(this.mapperSupplier.get(), "supplied mapper is null");
+        this.fetcher = new ExtSourceFetcher(jsonSupplier, json);
+        this.adapters = adapters;
 
         final JsonObject update;
         try {
-            update = this.mapperSupplier.get().fromJson(this.lastJson, JsonObject.class);
+            update = this.adapters.mapper().fromJson(ExtSourcePayload.reader(json), JsonObject.class);
         }
-        catch (final JsonSyntaxException e) {
+        catch (final JsonSyntaxException | JsonIOException e) {
             throw new KfgSourceException(this.name(), "error parsing json string", e);
         }
         Objects.requireNonNull(update, "root element is null");
@@ -185,20 +219,18 @@ public final class ExtGsonJsonSource extends Source {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final Gson reader = this.mapperSupplier.get();
+        final TypeAdapter<?> reader = this.adapters.adapter(type);
 
         final JsonElement at = this.node(key);
         checkJsonType(at.isJsonArray(), this.name(), type, at, key);
         final JsonArray asJsonArray = at.getAsJsonArray();
 
-        final Type typeToken = TypeToken.get(type.type()).getType();
-
-        final List<?> asList = new ArrayList<>(asJsonArray.size());
+        final List<Object> asList = new ArrayList<>(asJsonArray.size());
         for (final JsonElement jsonElement : asJsonArray)
             try {
-                asList.add(reader.fromJson(jsonElement, typeToken));
+                asList.add(reader.fromJsonTree(jsonElement));
             }
-            catch (final JsonSyntaxException e) {
+            catch (final JsonParseException | IllegalStateException e) {
                 throw new KfgSourceException(this.name(), key, type, null, "gson error", e);
             }
 
@@ -212,16 +244,14 @@ public final class ExtGsonJsonSource extends Source {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final Gson reader = this.mapperSupplier.get();
+        final TypeAdapter<?> reader = this.adapters.adapter(type);
         final JsonElement node = this.node(key);
 
-        final Type typeToken = TypeToken.get(type.type()).getType();
-
         Object ret;
         try {
-            ret = reader.fromJson(node, typeToken);
+            ret = reader.fromJsonTree(node);
         }
-        catch (final JsonSyntaxException e) {
+        catch (final JsonParseException | IllegalStateException e) {
             throw new KfgTypeException(this.name(), key, type, null, "gson error", e);
         }
 
@@ -244,40 +274,138 @@ public final class ExtGsonJsonSource extends Source {
     public boolean has(@NotNull final String key,
                        @Nullable final Kind<?> type) {
         Objects.requireNonNull(key, "key");
+        return this.has(KeyPath.of(key), type);
+    }
 
-        if (this.node_(key) == null)
-            return false;
+    @Override
+    public boolean has(@NotNull final KeyPath key,
+                       @Nullable final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
 
         if (type == null)
-            return true;
+            return this.node_(key) != null;
 
-        final JsonElement node = this.node(key);
+        return this.lookup(key, type).exists();
+    }
 
-        if (typeMatches(type, node))
-            return true;
+    @Override
+    @NotNull
+    public Lookup lookup(@NotNull final KeyPath key,
+                         @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        final JsonElement node = this.node_(key);
+        if (node == null)
+            return Lookup.MISSING;
+        if (node.isJsonNull())
+            return Lookup.NULL;
+
+        if (type.isBuiltin())
+            return typeMatches(type, node)
+                ? Lookup.FOUND
+                : Lookup.TYPE_MISMATCH;
 
+        // Only the mapper knows if it can read custom types.
         try {
-            this.custom0(key, type);
-            return true;
+            this.custom0(key.key(), type);
+            return Lookup.FOUND;
         }
-        catch (final Throwable t) {
-            return false;
+        catch (final RuntimeException e) {
+            return Lookup.TYPE_MISMATCH;
         }
     }
 
     @Override
+    @NotNull
     @Contract(pure = true)
+    public Set<String> keys() {
+        return this.flat().keySet();
+    }
+
+    @Override
+    @Nullable
+    @Contract(pure = true)
+    public Set<String> changedKeys(@NotNull final Source previous) {
+        Objects.requireNonNull(previous, "previous");
+        if (!(previous instanceof ExtGsonJsonSource))
+            return null;
+        return ExtSourceChanges.changedKeys(
+            ((ExtGsonJsonSource) previous).flat(),
+            this.flat(),
+            it -> it instanceof JsonObject);
+    }
+
+    @NotNull
+    private Map<String, JsonElement> flat() {
+        Map<String, JsonElement> flat = this.flat;
+        if (flat == null) {
+            final Map<String, JsonElement> collected = new HashMap<>();
+            synchronized (LOCK) {
+                flatten(this.root, "", collected);
+            }
+            flat = Collections.unmodifiableMap(collected);
+            this.flat = flat;
+        }
+        return flat;
+    }
+
+    private static void flatten(@NotNull final JsonObject node,
+                                @NotNull final String prefix,
+                                @NotNull final Map<String, JsonElement> into) {
+        for (final Map.Entry<String, JsonElement> entry : node.entrySet()) {
+            final String key = prefix + entry.getKey();
+            into.put(key, entry.getValue());
+            if (entry.getValue().isJsonObject())
+                flatten(entry.getValue().getAsJsonObject(), key + ".", into);
+        }
+    }
+
+    @Override
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <U> K<U> resolve(@NotNull final KeyPath key,
+                            @NotNull final Kind<U> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        if (type.isBuiltin())
+            return super.resolve(key, type);
+
+        final JsonElement node = this.node_(key);
+        if (node == null)
+            return DummyV.missing(type, key.key());
+        if (node.isJsonNull())
+            return DummyV.null_(type, key.key());
+
+        // Deserialize once, failing to do so is the type check.
+        final Object value;
+        try {
+            value = this.custom0(key.key(), type);
+        }
+        catch (final RuntimeException e) {
+            return DummyV.missing(type, key.key());
+        }
+        return DummyV.of((U) value, type, key.key());
+    }
+
+    @Override
     public boolean hasUpdate() {
-        final String newJson = json.get();
-        return newJson != null && !Objects.equals(newJson, lastJson);
+        return this.fetcher.hasUpdate();
+    }
+
+    @Override
+    public long pendingVersion() {
+        return this.fetcher.pendingVersion();
     }
 
-    @Contract(pure = true,
-              value = "->new")
     @Override
     @NotNull
     public Source updatedCopy() {
-        return new ExtGsonJsonSource(this.name(), this.json, this.mapperSupplier);
+        final Object json = this.fetcher.update();
+        return json == null
+            ? this
+            : new ExtGsonJsonSource(this.name(), this.fetcher.supplier(), this.adapters, json);
     }
 
 }
@@ -0,0 +1,93 @@
+package io.koosha.konfiguration.impl;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import io.koosha.konfiguration.type.Kind;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolved {@link TypeAdapter}s of a gson source, so that reading the same
+ * type over and over does not look up its adapter over and over.
+ *
+ * <p>The gson instance is taken from the supplier on each use, and the
+ * adapters are kept for as long as it returns the same instance; a different
+ * instance starts over with no adapters. A source hands its instance to its
+ * updated copies, so the adapters outlive a reload.
+ */
+@ThreadSafe
+@ApiStatus.Internal
+final class ExtGsonSourceAdapters {
+
+    @NotNull
+    private final Supplier<Gson> mapperSupplier;
+
+    @Nullable
+    private volatile Adapters adapters;
+
+    ExtGsonSourceAdapters(@NotNull final Supplier<Gson> mapperSupplier) {
+        Objects.requireNonNull(mapperSupplier, "mapperSupplier");
+        this.mapperSupplier = mapperSupplier;
+    }
+
+    /**
+     * Adapters of the gson instance currently supplied.
+     */
+    @NotNull
+    private Adapters adapters() {
+        final Gson mapper = Objects.requireNonNull(this.mapperSupplier.get(), "supplied mapper is null");
+        Adapters adapters = this.adapters;
+        if (adapters == null || adapters.mapper != mapper) {
+            // Racing callers might each build their own, only one is kept.
+            adapters = new Adapters(mapper);
+            this.adapters = adapters;
+        }
+        return adapters;
+    }
+
+    @NotNull
+    Gson mapper() {
+        return this.adapters().mapper;
+    }
+
+    /**
+     * Adapter of type.
+     *
+     * @param type the type to read.
+     * @return adapter of type.
+     */
+    @NotNull
+    TypeAdapter<?> adapter(@NotNull final Kind<?> type) {
+        Objects.requireNonNull(type, "type");
+
+        final Adapters adapters = this.adapters();
+        return adapters.adapters.computeIfAbsent(type.type(), t -> adapters.mapper.getAdapter(TypeToken.get(t)));
+    }
+
+
+    /**
+     * Adapters resolved from one gson instance.
+     */
+    @ThreadSafe
+    private static final class Adapters {
+
+        @NotNull
+        private final Gson mapper;
+
+        private final ConcurrentHashMap<Type, TypeAdapter<?>> adapters = new ConcurrentHashMap<>();
+
+        private Adapters(@NotNull final Gson mapper) {
+            this.mapper = mapper;
+        }
+
+    }
+
+}
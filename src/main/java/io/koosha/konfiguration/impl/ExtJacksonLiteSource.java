@@ -1,19 +1,17 @@
 package io.koosha.konfiguration.impl;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.type.CollectionType;
-import com.fasterxml.jackson.databind.type.TypeFactory;
 import io.koosha.konfiguration.KfgException;
 import io.koosha.konfiguration.KfgMissingKeyException;
 import io.koosha.konfiguration.KfgSourceException;
 import io.koosha.konfiguration.KfgTypeException;
 import io.koosha.konfiguration.LiteKonfiguration;
 import io.koosha.konfiguration.LiteSource;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.ThreadSafe;
 import org.jetbrains.annotations.Contract;
@@ -22,14 +20,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.io.StringWriter;
-import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
-import java.util.regex.Pattern;
 
 /**
  * Reads konfig from a json/yaml source (supplied as string).
@@ -42,9 +38,7 @@ import java.util.regex.Pattern;
 @ThreadSafe
 final class ExtJacksonLiteSource extends LiteSource {
 
-    private static final Pattern DOT_PATTERN = Pattern.compile("\\.");
-
-    private final Supplier<ObjectMapper> mapperSupplier;
+    private final ExtJacksonSourceReaders readers;
     private final ObjectNode root;
     private final Object LOCK = new Object();
 
@@ -58,11 +52,12 @@ final class ExtJacksonLiteSource extends LiteSource {
         if (key.isEmpty())
             throw new KfgMissingKeyException(this.name(), key, "empty konfig key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
             JsonNode node = this.root;
-            for (final String sub : split) {
+            for (int i = 0; i < path.size(); i++) {
+                final String sub = path.part(i);
                 if (node.isMissingNode())
                     return node;
                 node = root.findPath(sub);
@@ -86,20 +81,19 @@ final class ExtJacksonLiteSource extends LiteSource {
 
     @NotNull
     @Contract(mutates = "this")
-    private ObjectNode ensureIntermediateNodes(@NotNull final String[] key,
-                                               @NotNull final String keyJoined) {
+    private ObjectNode ensureIntermediateNodes(@NotNull final KeyPath key) {
         ObjectNode from = this.root;
 
-        for (int i = 0; i < key.length - 1; i++) {
-            JsonNode next = from.findPath(key[i]);
+        for (int i = 0; i < key.size() - 1; i++) {
+            JsonNode next = from.findPath(key.part(i));
             if (next.isMissingNode()) {
-                from.set(key[i], from.objectNode());
-                next = from.findPath(key[i]);
+                from.set(key.part(i), from.objectNode());
+                next = from.findPath(key.part(i));
             }
             else if (!next.isObject()) {
                 throw new KfgTypeException(
-                    this.name, keyJoined, null, null,
-                    "expected all objects in path, found=" + next + " at=" + key[i]);
+                    this.name, key.key(), null, null,
+                    "expected all objects in path, found=" + next + " at=" + key.part(i));
             }
             from = (ObjectNode) next;
         }
@@ -108,17 +102,16 @@ final class ExtJacksonLiteSource extends LiteSource {
     }
 
     @Contract(pure = true)
-    private Optional<ObjectNode> ensureIntermediateNodesOrNull(@NotNull final String[] key,
-                                                               @NotNull final String keyJoined) {
+    private Optional<ObjectNode> ensureIntermediateNodesOrNull(@NotNull final KeyPath key) {
         ObjectNode from = this.root;
 
-        for (int i = 0; i < key.length - 1; i++) {
-            JsonNode next = from.findPath(key[i]);
+        for (int i = 0; i < key.size() - 1; i++) {
+            JsonNode next = from.findPath(key.part(i));
             if (next.isMissingNode())
                 return Optional.empty();
             else if (!next.isObject())
-                throw new KfgTypeException(this.name, keyJoined, null, null,
-                    "expected all objects in path, found=" + next + " at=" + key[i]);
+                throw new KfgTypeException(this.name, key.key(), null, null,
+                    "expected all objects in path, found=" + next + " at=" + key.part(i));
             from = (ObjectNode) next;
         }
 
@@ -147,17 +140,23 @@ final class ExtJacksonLiteSource extends LiteSource {
     ExtJacksonLiteSource(@NotNull final String name,
                          @NotNull final String json,
                          @NotNull final Supplier<ObjectMapper> objectMapper) {
+        this(name, json, new ExtJacksonSourceReaders(
+            Objects.requireNonNull(objectMapper, "objectMapper")));
+    }
+
+    private ExtJacksonLiteSource(@NotNull final String name,
+                                 @NotNull final String json,
+                                 @NotNull final ExtJacksonSourceReaders readers) {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(json, "json");
-        Objects.requireNonNull(objectMapper, "objectMapper");
-        Objects.requireNonNull(objectMapper.get(), "supplied mapper is null");
+        Objects.requireNonNull(readers, "readers");
 
         this.name = name;
-        this.mapperSupplier = objectMapper;
+        this.readers = readers;
 
         final JsonNode update;
         try {
-            update = this.mapperSupplier.get().readTree(json);
+            update = this.readers.mapper().readTree(json);
         }
         catch (final IOException e) {
             throw new KfgSourceException(this.name(), "error parsing json string", e);
@@ -182,7 +181,7 @@ final class ExtJacksonLiteSource extends LiteSource {
     @Contract(pure = true)
     public String serialize() {
         final StringWriter sw = new StringWriter();
-        final ObjectMapper mapper = this.mapperSupplier.get();
+        final ObjectMapper mapper = this.readers.mapper();
         try {
             synchronized (LOCK) {
                 mapper.writeValue(sw, this.root);
@@ -202,7 +201,7 @@ final class ExtJacksonLiteSource extends LiteSource {
     @Override
     @NotNull
     public LiteKonfiguration toWritableCopy() {
-        return new ExtJacksonLiteSource(this.name, this.serialize(), this.mapperSupplier);
+        return new ExtJacksonLiteSource(this.name, this.serialize(), this.readers);
     }
 
     @Override
@@ -319,17 +318,14 @@ final class ExtJacksonLiteSource extends LiteSource {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final ObjectMapper reader = this.mapperSupplier.get();
-        final TypeFactory tf = reader.getTypeFactory();
-        final JavaType ct = tf.constructSimpleType(type.klass(), new JavaType[0]);
-        final CollectionType javaType = tf.constructCollectionType(List.class, ct);
+        final ObjectReader reader = this.readers.list(type);
 
         final List<?> asList;
         synchronized (LOCK) {
             final JsonNode at = this.node(key);
             ExtJacksonSourceJsonHelper.checkJsonType(at.isArray(), type, at, key, this.name());
             try {
-                asList = reader.readValue(at.traverse(), javaType);
+                asList = reader.readValue(at.traverse());
             }
             catch (final IOException e) {
                 throw new KfgTypeException(this.name(), key, type, at, "type mismatch", e);
@@ -352,19 +348,14 @@ final class ExtJacksonLiteSource extends LiteSource {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final ObjectMapper reader = this.mapperSupplier.get();
+        final ObjectReader reader = this.readers.custom(type);
         Object ret;
 
         try {
             synchronized (LOCK) {
                 final JsonNode node = this.node(key);
                 final JsonParser traverse = node.traverse();
-                ret = reader.readValue(traverse, new TypeReference<Object>() {
-                    @Override
-                    public Type getType() {
-                        return type.type();
-                    }
-                });
+                ret = reader.readValue(traverse);
             }
         }
         catch (final IOException e) {
@@ -396,11 +387,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Boolean value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value);
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value);
         }
 
         return this;
@@ -413,11 +404,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Byte value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value == null ? null : value.shortValue());
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value == null ? null : value.shortValue());
         }
 
         return this;
@@ -430,11 +421,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Short value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value);
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value);
         }
 
         return this;
@@ -447,11 +438,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Integer value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value);
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value);
         }
 
         return this;
@@ -464,11 +455,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Long value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value);
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value);
         }
 
         return this;
@@ -481,11 +472,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Float value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value);
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value);
         }
 
         return this;
@@ -498,11 +489,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Double value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value);
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value);
         }
 
         return this;
@@ -515,11 +506,11 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final String value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
+        final KeyPath path = KeyPath.of(key);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .put(split[split.length - 1], value);
+            this.ensureIntermediateNodes(path)
+                .put(path.last(), value);
         }
 
         return this;
@@ -532,13 +523,13 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final List<?> value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
-        final ObjectMapper objectMapper = this.mapperSupplier.get();
+        final KeyPath path = KeyPath.of(key);
+        final ObjectMapper objectMapper = this.readers.mapper();
         final JsonNode jsonNode = objectMapper.valueToTree(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .set(split[split.length - 1], jsonNode);
+            this.ensureIntermediateNodes(path)
+                .set(path.last(), jsonNode);
         }
 
         return this;
@@ -551,13 +542,13 @@ final class ExtJacksonLiteSource extends LiteSource {
                                  @Nullable final Set<?> value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
-        final ObjectMapper objectMapper = this.mapperSupplier.get();
+        final KeyPath path = KeyPath.of(key);
+        final ObjectMapper objectMapper = this.readers.mapper();
         final JsonNode jsonNode = objectMapper.valueToTree(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .set(split[split.length - 1], jsonNode);
+            this.ensureIntermediateNodes(path)
+                .set(path.last(), jsonNode);
         }
 
         return this;
@@ -570,13 +561,13 @@ final class ExtJacksonLiteSource extends LiteSource {
                                        @Nullable final Object value) {
         Objects.requireNonNull(key, "key");
 
-        final String[] split = DOT_PATTERN.split(key);
-        final ObjectMapper objectMapper = this.mapperSupplier.get();
+        final KeyPath path = KeyPath.of(key);
+        final ObjectMapper objectMapper = this.readers.mapper();
         final JsonNode jsonNode = objectMapper.valueToTree(value);
 
         synchronized (LOCK) {
-            this.ensureIntermediateNodes(split, key)
-                .set(split[split.length - 1], jsonNode);
+            this.ensureIntermediateNodes(path)
+                .set(path.last(), jsonNode);
         }
 
         return this;
@@ -592,9 +583,9 @@ final class ExtJacksonLiteSource extends LiteSource {
 
         if (key.contains(".")) {
             final String field = key.substring(key.lastIndexOf('.') + 1);
-            final String[] split = DOT_PATTERN.split(key);
+            final KeyPath path = KeyPath.of(key);
             synchronized (LOCK) {
-                this.ensureIntermediateNodesOrNull(split, key)
+                this.ensureIntermediateNodesOrNull(path)
                     .ifPresent(node -> node.remove(field));
             }
         }
@@ -1,16 +1,18 @@
 package io.koosha.konfiguration.impl;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
-import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import io.koosha.konfiguration.DummyV;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KfgMissingKeyException;
 import io.koosha.konfiguration.KfgSourceException;
 import io.koosha.konfiguration.KfgTypeException;
+import io.koosha.konfiguration.Lookup;
 import io.koosha.konfiguration.Source;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import jdk.nashorn.internal.ir.annotations.Immutable;
 import net.jcip.annotations.ThreadSafe;
@@ -20,13 +22,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Supplier;
-import java.util.regex.Pattern;
 
 /**
  * Reads konfig from a json/yaml source (supplied as string).
@@ -41,33 +45,42 @@ import java.util.regex.Pattern;
 @ApiStatus.Internal
 final class ExtJacksonSource extends Source {
 
-    protected static final String DOT_PATTERN = Pattern.quote(".");
-
-    private final Supplier<ObjectMapper> mapperSupplier;
-    private final Supplier<String> jsonSupplier;
-    private final String lastJson;
+    private final ExtJacksonSourceReaders readers;
+    private final ExtSourceFetcher fetcher;
     private final JsonNode root;
-    private final Object LOCK = new Object();
+
+    /**
+     * Every dotted path of {@link #root} (through object fields, including
+     * intermediate objects) to its node, built once so that lookups do not
+     * walk the tree.
+     */
+    @NotNull
+    private final Map<String, JsonNode> index;
 
     @NotNull
     private final String name;
 
-    private JsonNode node_(@NotNull final String key) {
+    @NotNull
+    private JsonNode node_(@NotNull final KeyPath key) {
         Objects.requireNonNull(key, "key");
-        if (key.isEmpty())
-            throw new KfgMissingKeyException(this.name(), key, "empty konfig key");
+        if (key.key().isEmpty())
+            throw new KfgMissingKeyException(this.name(), key.key(), "empty konfig key");
 
-        final String[] split = key.split(DOT_PATTERN);
+        final JsonNode node = this.index.get(key.key());
+        return node == null ? MissingNode.getInstance() : node;
+    }
 
-        JsonNode node = this.root;
-        synchronized (LOCK) {
-            for (final String sub : split) {
-                if (node.isMissingNode())
-                    return node;
-                node = node.findPath(sub);
-            }
+    private static void index(@NotNull final JsonNode node,
+                              @NotNull final String prefix,
+                              @NotNull final Map<String, JsonNode> into) {
+        final Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            final String key = prefix + field.getKey();
+            into.put(key, field.getValue());
+            if (field.getValue().isObject())
+                index(field.getValue(), key + ".", into);
         }
-        return node;
     }
 
     @NotNull
@@ -76,7 +89,7 @@ final class ExtJacksonSource extends Source {
         if (key.isEmpty())
             throw new KfgMissingKeyException(this.name(), key, "empty konfig key");
 
-        final JsonNode node = node_(key);
+        final JsonNode node = node_(KeyPath.of(key));
         if (node.isMissingNode())
             throw new KfgMissingKeyException(this.name(), key);
         return node;
@@ -104,21 +117,45 @@ final class ExtJacksonSource extends Source {
     ExtJacksonSource(@NotNull final String name,
                      @NotNull final Supplier<String> jsonSupplier,
                      @NotNull final Supplier<ObjectMapper> objectMapper) {
+        this(name,
+            Objects.requireNonNull(jsonSupplier, "jsonSupplier"),
+            new ExtJacksonSourceReaders(Objects.requireNonNull(objectMapper, "objectMapper")),
+            Objects.requireNonNull(jsonSupplier.get(), "supplied json is null"));
+    }
+
+    /**
+     * Same as {@link #ExtJacksonSource(String, Supplier, Supplier)} but parses
+     * the supplied UTF-8 bytes directly, without decoding them into a string.
+     */
+    @NotNull
+    static ExtJacksonSource bytes(@NotNull final String name,
+                                  @NotNull final Supplier<ByteBuffer> jsonSupplier,
+                                  @NotNull final Supplier<ObjectMapper> objectMapper) {
+        Objects.requireNonNull(jsonSupplier, "jsonSupplier");
+        return new ExtJacksonSource(name,
+            jsonSupplier,
+            new ExtJacksonSourceReaders(Objects.requireNonNull(objectMapper, "objectMapper")),
+            Objects.requireNonNull(jsonSupplier.get(), "supplied json is null"));
+    }
+
+    private ExtJacksonSource(@NotNull final String name,
+                             @NotNull final Supplier<?> jsonSupplier,
+                             @NotNull final ExtJacksonSourceReaders readers,
+                             @NotNull final Object json) {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(jsonSupplier, "jsonSupplier");
-        Objects.requireNonNull(objectMapper, "objectMapper");
-        Objects.requireNonNull(objectMapper.get(), "supplied mapper is null");
+        Objects.requireNonNull(readers, "readers");
+        ExtSourcePayload.check(json, "json");
 
         this.name = name;
-        this.jsonSupplier = jsonSupplier;
-        this.mapperSupplier = objectMapper;
-
-        this.lastJson = this.jsonSupplier.get();
-        Objects.requireNonNull(this.lastJson, "supplied json is null");
+        this.fetcher = new ExtSourceFetcher(jsonSupplier, json);
+        this.readers = readers;
 
         final JsonNode update;
         try {
-            update = this.mapperSupplier.get().readTree(this.lastJson);
+            update = json instanceof String
+                ? this.readers.mapper().readTree((String) json)
+                : this.readers.mapper().readTree(ExtSourcePayload.stream(json));
         }
         catch (final IOException e) {
             throw new KfgSourceException(this.name(), "error parsing json string", e);
@@ -126,6 +163,11 @@ final class ExtJacksonSource extends Source {
         Objects.requireNonNull(update, "root element is null");
 
         this.root = update;
+
+        final Map<String, JsonNode> index = new HashMap<>();
+        if (this.root.isObject())
+            index(this.root, "", index);
+        this.index = Collections.unmodifiableMap(index);
     }
 
 
@@ -206,17 +248,14 @@ final class ExtJacksonSource extends Source {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final ObjectMapper reader = this.mapperSupplier.get();
-        final TypeFactory tf = reader.getTypeFactory();
-        final JavaType ct = tf.constructSimpleType(type.klass(), new JavaType[0]);
-        final CollectionType javaType = tf.constructCollectionType(List.class, ct);
+        final ObjectReader reader = this.readers.list(type);
 
         final JsonNode at = this.node(key);
         ExtJacksonSourceJsonHelper.checkJsonType(at.isArray(), type, at, key, this.name());
 
         final List<?> asList;
         try {
-            asList = reader.readValue(at.traverse(), javaType);
+            asList = reader.readValue(at.traverse());
         }
         catch (final IOException e) {
             throw new KfgTypeException(this.name(), key, type, at, "type mismatch", e);
@@ -239,19 +278,14 @@ final class ExtJacksonSource extends Source {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final ObjectMapper reader = this.mapperSupplier.get();
+        final ObjectReader reader = this.readers.custom(type);
 
         final JsonNode node = this.node(key);
         final JsonParser traverse = node.traverse();
 
         Object ret;
         try {
-            ret = reader.readValue(traverse, new TypeReference<Object>() {
-                @Override
-                public Type getType() {
-                    return type.type();
-                }
-            });
+            ret = reader.readValue(traverse);
         }
         catch (final IOException e) {
             throw new KfgSourceException(this.name(), key, type, null, "jackson error", e);
@@ -276,39 +310,115 @@ final class ExtJacksonSource extends Source {
     public boolean has(@NotNull final String key,
                        @Nullable final Kind<?> type) {
         Objects.requireNonNull(key, "key");
+        return this.has(KeyPath.of(key), type);
+    }
 
-        if (this.node_(key).isMissingNode())
-            return false;
+    @Override
+    public boolean has(@NotNull final KeyPath key,
+                       @Nullable final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
 
         if (type == null)
-            return true;
+            return !this.node_(key).isMissingNode();
+
+        return this.lookup(key, type).exists();
+    }
+
+    @Override
+    @NotNull
+    public Lookup lookup(@NotNull final KeyPath key,
+                         @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        final JsonNode node = this.node_(key);
+        if (node.isMissingNode())
+            return Lookup.MISSING;
+        if (node.isNull())
+            return Lookup.NULL;
 
-        if (ExtJacksonSourceJsonHelper.typeMatches(type, this.node(key)))
-            return true;
+        if (type.isBuiltin())
+            return ExtJacksonSourceJsonHelper.canRead(type, node)
+                ? Lookup.FOUND
+                : Lookup.TYPE_MISMATCH;
 
+        // Only the mapper knows if it can read custom types.
         try {
-            this.custom0(key, type);
-            return true;
+            this.custom0(key.key(), type);
+            return Lookup.FOUND;
         }
-        catch (final Throwable t) {
-            return false;
+        catch (final RuntimeException e) {
+            return Lookup.TYPE_MISMATCH;
         }
     }
 
+    @Override
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <U> K<U> resolve(@NotNull final KeyPath key,
+                            @NotNull final Kind<U> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        if (type.isBuiltin())
+            return super.resolve(key, type);
+
+        final JsonNode node = this.node_(key);
+        if (node.isMissingNode())
+            return DummyV.missing(type, key.key());
+        if (node.isNull())
+            return DummyV.null_(type, key.key());
+
+        // Deserialize once, failing to do so is the type check.
+        final Object value;
+        try {
+            value = this.custom0(key.key(), type);
+        }
+        catch (final RuntimeException e) {
+            return DummyV.missing(type, key.key());
+        }
+        return DummyV.of((U) value, type, key.key());
+    }
+
+
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public Set<String> keys() {
+        return this.index.keySet();
+    }
 
     @Override
+    @Nullable
     @Contract(pure = true)
+    public Set<String> changedKeys(@NotNull final Source previous) {
+        Objects.requireNonNull(previous, "previous");
+        if (!(previous instanceof ExtJacksonSource))
+            return null;
+        return ExtSourceChanges.changedKeys(
+            ((ExtJacksonSource) previous).index,
+            this.index,
+            it -> ((JsonNode) it).isObject());
+    }
+
+
+    @Override
     public boolean hasUpdate() {
-        final String newJson = jsonSupplier.get();
-        return newJson != null && !Objects.equals(newJson, lastJson);
+        return this.fetcher.hasUpdate();
+    }
+
+    @Override
+    public long pendingVersion() {
+        return this.fetcher.pendingVersion();
     }
 
-    @Contract(pure = true,
-              value = "->new")
     @Override
     @NotNull
     public Source updatedCopy() {
-        return new ExtJacksonSource(this.name(), this.jsonSupplier, this.mapperSupplier);
+        final Object json = this.fetcher.update();
+        return json == null
+            ? this
+            : new ExtJacksonSource(this.name(), this.fetcher.supplier(), this.readers, json);
     }
 
 }
@@ -33,6 +33,21 @@ final class ExtJacksonSourceJsonHelper {
         return mapper;
     }
 
+    /**
+     * A mapper shared by all the sources not given one, built once.
+     */
+    @Contract(pure = true)
+    @NotNull
+    static ObjectMapper shared() {
+        return Shared.MAPPER;
+    }
+
+    private static final class Shared {
+
+        private static final ObjectMapper MAPPER = mapper();
+
+    }
+
     @Contract(pure = true)
     static boolean typeMatches(@NotNull final Kind<?> type,
                                @NotNull final JsonNode node) {
@@ -51,6 +66,38 @@ final class ExtJacksonSourceJsonHelper {
             || type.isSet() && node.isArray();
     }
 
+    /**
+     * If the typed getters of a source can read node as type, only meaningful
+     * for {@link Kind#isBuiltin() builtin} kinds. Unlike
+     * {@link #typeMatches(Kind, JsonNode)} it accepts any integral node for
+     * integral types (if in range) and any number for floating point types,
+     * just as the getters do.
+     */
+    @Contract(pure = true)
+    static boolean canRead(@NotNull final Kind<?> type,
+                           @NotNull final JsonNode node) {
+        if (type.isBool())
+            return node.isBoolean();
+        if (type.isChar())
+            return node.isTextual() && node.textValue().length() == 1;
+        if (type.isString())
+            return node.isTextual();
+        if (type.isCollection())
+            return node.isArray();
+
+        final boolean integral = node.isShort() || node.isInt() || node.isLong();
+        if (type.isFloat() || type.isDouble())
+            return integral || node.isFloat() || node.isDouble();
+        if (!integral)
+            return false;
+
+        final long l = node.longValue();
+        return type.isByte() && Byte.MIN_VALUE <= l && l <= Byte.MAX_VALUE
+            || type.isShort() && Short.MIN_VALUE <= l && l <= Short.MAX_VALUE
+            || type.isInt() && Integer.MIN_VALUE <= l && l <= Integer.MAX_VALUE
+            || type.isLong();
+    }
+
     @NotNull
     @Contract(pure = true)
     static JsonNode checkJsonType(final boolean condition,
@@ -0,0 +1,114 @@
+package io.koosha.konfiguration.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import io.koosha.konfiguration.type.Kind;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Prebuilt {@link ObjectReader}s of a jackson source, so that reading the same
+ * type over and over does not resolve the type over and over.
+ *
+ * <p>The mapper is taken from the supplier on each use, and the readers are
+ * kept for as long as it returns the same instance; a different instance
+ * starts over with no readers. A source hands its instance to its updated
+ * copies, so the readers outlive a reload.
+ */
+@ThreadSafe
+@ApiStatus.Internal
+final class ExtJacksonSourceReaders {
+
+    @NotNull
+    private final Supplier<ObjectMapper> mapperSupplier;
+
+    @Nullable
+    private volatile Readers readers;
+
+    ExtJacksonSourceReaders(@NotNull final Supplier<ObjectMapper> mapperSupplier) {
+        Objects.requireNonNull(mapperSupplier, "mapperSupplier");
+        this.mapperSupplier = mapperSupplier;
+    }
+
+    /**
+     * Readers of the mapper currently supplied.
+     */
+    @NotNull
+    private Readers readers() {
+        final ObjectMapper mapper = Objects.requireNonNull(this.mapperSupplier.get(), "supplied mapper is null");
+        Readers readers = this.readers;
+        if (readers == null || readers.mapper != mapper) {
+            // Racing callers might each build their own, only one is kept.
+            readers = new Readers(mapper);
+            this.readers = readers;
+        }
+        return readers;
+    }
+
+    @NotNull
+    ObjectMapper mapper() {
+        return this.readers().mapper;
+    }
+
+    /**
+     * Reader of a list of type.
+     *
+     * @param type type of list elements.
+     * @return reader of a list of type.
+     */
+    @NotNull
+    ObjectReader list(@NotNull final Kind<?> type) {
+        Objects.requireNonNull(type, "type");
+
+        final Readers readers = this.readers();
+        return readers.lists.computeIfAbsent(type.klass(), klass -> {
+            final TypeFactory tf = readers.mapper.getTypeFactory();
+            return readers.mapper.readerFor(tf.constructCollectionType(List.class, tf.constructType(klass)));
+        });
+    }
+
+    /**
+     * Reader of type.
+     *
+     * @param type the type to read.
+     * @return reader of type.
+     */
+    @NotNull
+    ObjectReader custom(@NotNull final Kind<?> type) {
+        Objects.requireNonNull(type, "type");
+
+        final Readers readers = this.readers();
+        return readers.customs.computeIfAbsent(type.type(), t ->
+            readers.mapper.readerFor(readers.mapper.getTypeFactory().constructType(t)));
+    }
+
+
+    /**
+     * Readers built from one mapper instance.
+     */
+    @ThreadSafe
+    private static final class Readers {
+
+        @NotNull
+        private final ObjectMapper mapper;
+
+        private final ConcurrentHashMap<Class<?>, ObjectReader> lists = new ConcurrentHashMap<>();
+
+        private final ConcurrentHashMap<Type, ObjectReader> customs = new ConcurrentHashMap<>();
+
+        private Readers(@NotNull final ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+    }
+
+}
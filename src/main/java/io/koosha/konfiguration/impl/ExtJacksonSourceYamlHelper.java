@@ -33,4 +33,19 @@ final class ExtJacksonSourceYamlHelper {
         return mapper;
     }
 
+    /**
+     * A mapper shared by all the sources not given one, built once.
+     */
+    @Contract(pure = true)
+    @NotNull
+    static ObjectMapper shared() {
+        return Shared.MAPPER;
+    }
+
+    private static final class Shared {
+
+        private static final ObjectMapper MAPPER = mapper();
+
+    }
+
 }
@@ -8,6 +8,7 @@ import net.jcip.annotations.ThreadSafe;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -16,6 +17,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -29,7 +32,23 @@ final class ExtMapSource extends Source {
 
     private final Supplier<Map<String, ?>> map;
     private final Map<String, ?> root;
-    private final int lastHash;
+
+    /**
+     * Version of the supplied map, or null if the map is not versioned and is
+     * told apart by its hash.
+     */
+    @Nullable
+    private final LongSupplier version;
+
+    /**
+     * Version of {@link #root}, or its hash if not versioned.
+     */
+    private final long lastVersion;
+
+    /**
+     * Version, or hash, of the map last seen by {@link #hasUpdate()}.
+     */
+    private final AtomicLong pending = new AtomicLong();
 
     @NotNull
     private final String name;
@@ -65,9 +84,35 @@ final class ExtMapSource extends Source {
 
         this.name = name;
         this.map = mapSupplier;
-        this.root = new HashMap<>(mapSupplier.get());
-        this.lastHash = this.root.hashCode();
-        Objects.requireNonNull(this.map.get(), "supplied map is null");
+        this.version = null;
+        this.root = new HashMap<>(Objects.requireNonNull(mapSupplier.get(), "supplied map is null"));
+        this.lastVersion = this.root.hashCode();
+        this.pending.set(this.lastVersion);
+    }
+
+    /**
+     * Versioned map, the supplied map is used as is (not copied) and changes
+     * are told by version.
+     *
+     * @param name        name of this source.
+     * @param mapSupplier the map, must not change once supplied.
+     * @param version     version of the map currently supplied.
+     */
+    ExtMapSource(@NotNull final String name,
+                 @NotNull final Supplier<Map<String, ?>> mapSupplier,
+                 @NotNull final LongSupplier version) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(mapSupplier, "mapSupplier");
+        Objects.requireNonNull(version, "version");
+
+        this.name = name;
+        this.map = mapSupplier;
+        this.version = version;
+        // Version first: if the map changes in between, the next poll sees it.
+        this.lastVersion = version.getAsLong();
+        this.pending.set(this.lastVersion);
+        this.root = Collections.unmodifiableMap(
+            Objects.requireNonNull(mapSupplier.get(), "supplied map is null"));
     }
 
     @Override
@@ -195,22 +240,72 @@ final class ExtMapSource extends Source {
         return this.name;
     }
 
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(this.root.keySet());
+    }
+
+    /**
+     * Diffs the maps only if not versioned: the hash of a map not versioned is
+     * taken on each poll anyway, so diffing it on update costs about the same.
+     * A versioned map is never walked, and might be large: it tells null so
+     * that only the keys actually read from it are read again, instead of
+     * diffing all of its keys.
+     */
+    @Override
+    @Nullable
+    @Contract(pure = true)
+    public Set<String> changedKeys(@NotNull final Source previous) {
+        Objects.requireNonNull(previous, "previous");
+        if (!(previous instanceof ExtMapSource))
+            return null;
+        if (((ExtMapSource) previous).root == this.root)
+            return Collections.emptySet();
+        if (this.version != null)
+            return null;
+        return ExtSourceChanges.changedKeys(
+            ((ExtMapSource) previous).root,
+            this.root,
+            it -> false);
+    }
+
     @Override
     @Contract(pure = true)
     public boolean hasUpdate() {
+        if (this.version != null) {
+            final long newVersion = this.version.getAsLong();
+            this.pending.set(newVersion);
+            return newVersion != this.lastVersion;
+        }
+
         final Map<String, ?> newMap = map.get();
-        if (newMap == null)
+        if (newMap == null) {
+            this.pending.set(lastVersion);
             return false;
+        }
         final int newHash = newMap.hashCode();
-        return newHash != lastHash;
+        this.pending.set(newHash);
+        return newHash != lastVersion;
     }
 
-    @Contract(pure = true,
-              value = "->new")
+    @Override
+    @Contract(pure = true)
+    public long pendingVersion() {
+        return this.pending.get();
+    }
+
+    @Contract(pure = true)
     @Override
     @NotNull
     public Source updatedCopy() {
-        return new ExtMapSource(name(), map);
+        if (this.version == null)
+            return new ExtMapSource(name(), map);
+
+        return this.hasUpdate()
+            ? new ExtMapSource(name(), map, version)
+            : this;
     }
 
 }
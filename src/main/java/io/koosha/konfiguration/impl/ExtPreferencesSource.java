@@ -12,15 +12,25 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.prefs.BackingStoreException;
+import java.util.prefs.NodeChangeEvent;
 import java.util.prefs.NodeChangeListener;
+import java.util.prefs.PreferenceChangeEvent;
+import java.util.prefs.PreferenceChangeListener;
 import java.util.prefs.Preferences;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -36,9 +46,18 @@ import java.util.stream.Stream;
  * from backing source. Only changes are supported (as stated in
  * {@link Preferences#addNodeChangeListener(NodeChangeListener)})
  *
- * <p>Thread safe and immutable.
+ * <p>Changes are told by {@link PreferenceChangeListener}s and
+ * {@link NodeChangeListener}s on every node of the tree, shared by all the
+ * sources of the same tree. {@link #hasUpdate()} walks the tree only after
+ * such an event, comparing a fingerprint of its keys, values and nodes, so a
+ * change reverted meanwhile is no update. Preferences delivers these events
+ * asynchronously, and only for changes made in this JVM, so a change is seen
+ * once its event is delivered. The listeners are removed once none of the
+ * sources of the tree is reachable anymore.
+ *
+ * <p>Existence of nodes is cached by each source, as of when it was made.
  *
- * <p>For now, pref change listener is not used
+ * <p>Thread safe and immutable.
  */
 @ApiStatus.Internal
 @ThreadSafe
@@ -47,7 +66,27 @@ final class ExtPreferencesSource extends Source {
     private final Pattern LIST_SPLITTER = Pattern.compile(",");
 
     private final Preferences source;
-    private final int lastHash;
+
+    /**
+     * Shared by all the sources of the same tree.
+     */
+    @NotNull
+    private final Tracker tracker;
+
+    /**
+     * Fingerprint of the tree when this copy was made.
+     */
+    private final long fingerprint;
+
+    /**
+     * Fingerprint of the tree last seen by {@link #hasUpdate()}.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Existence of nodes, as seen by this copy.
+     */
+    private final ConcurrentHashMap<String, Boolean> exists = new ConcurrentHashMap<>();
 
     @NotNull
     private final String name;
@@ -61,7 +100,9 @@ final class ExtPreferencesSource extends Source {
 
         this.name = name;
         this.source = preferences;
-        this.lastHash = hashOf();
+        this.tracker = Tracker.track(name, preferences, this);
+        this.fingerprint = this.tracker.fingerprint();
+        this.pending.set(this.fingerprint);
     }
 
     @Override
@@ -209,13 +250,11 @@ final class ExtPreferencesSource extends Source {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final String sane = sane(key);
+        final String sane = key.replace('.', '/');
 
         try {
-            synchronized (LOCK) {
-                if (!source.nodeExists(sane))
-                    return false;
-            }
+            if (!this.nodeExists(sane))
+                return false;
         }
         catch (Throwable e) {
             throw new KfgSourceException(this.name(), key, null, null, "error checking existence of key", e);
@@ -272,10 +311,8 @@ final class ExtPreferencesSource extends Source {
         final String newKey = key.replace('.', '/');
 
         try {
-            synchronized (LOCK) {
-                if (!this.source.nodeExists(newKey))
-                    throw new KfgMissingKeyException(this.name(), key);
-            }
+            if (!this.nodeExists(newKey))
+                throw new KfgMissingKeyException(this.name(), key);
         }
         catch (final BackingStoreException e) {
             throw new KfgIllegalStateException(this.name(), "backing store error for key=" + key, e);
@@ -284,19 +321,17 @@ final class ExtPreferencesSource extends Source {
         return newKey;
     }
 
-    @Contract(pure = true)
-    private int hashOf() {
-        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-        try {
-            synchronized (LOCK) {
-                this.source.exportSubtree(buffer);
-            }
-        }
-        catch (final IOException | BackingStoreException e) {
-            throw new KfgSourceException(this.name(),
-                "could not calculate hash of the java.util.prefs.Preferences source", e);
+    private boolean nodeExists(@NotNull final String path) throws BackingStoreException {
+        final Boolean cached = this.exists.get(path);
+        if (cached != null)
+            return cached;
+
+        final boolean exists;
+        synchronized (LOCK) {
+            exists = this.source.nodeExists(path);
         }
-        return Arrays.hashCode(buffer.toByteArray());
+        this.exists.put(path, exists);
+        return exists;
     }
 
     @NotNull
@@ -309,15 +344,256 @@ final class ExtPreferencesSource extends Source {
     @Override
     @Contract(pure = true)
     public boolean hasUpdate() {
-        return lastHash != hashOf();
+        final long fingerprint = this.tracker.fingerprint();
+        this.pending.set(fingerprint);
+        return fingerprint != this.fingerprint;
+    }
+
+    @Override
+    @Contract(pure = true)
+    public long pendingVersion() {
+        return this.pending.get();
     }
 
     @NotNull
     @Override
-    @Contract(pure = true,
-              value = "->this")
+    @Contract(pure = true)
     public Source updatedCopy() {
-        return new ExtPreferencesSource(this.name(), this.source);
+        return this.hasUpdate()
+            ? new ExtPreferencesSource(this.name(), this.source)
+            : this;
+    }
+
+    /**
+     * If any source of the given tree is still listening on it.
+     *
+     * @param root root of the tree.
+     * @return true if the tree is listened on.
+     */
+    static boolean isTracked(@NotNull final Preferences root) {
+        Objects.requireNonNull(root, "root");
+        return Tracker.isTracked(root);
+    }
+
+
+    /**
+     * Fingerprint of a preferences tree, listening on all of its nodes
+     * (including the ones added later) to walk the tree again only after a
+     * change. Shared by all the sources of the same tree, it stops listening
+     * once none of them is reachable anymore.
+     */
+    @ThreadSafe
+    private static final class Tracker implements NodeChangeListener, PreferenceChangeListener {
+
+        // All guarded by Tracker.class.
+        private static final Map<Preferences, Tracker> TRACKERS = new IdentityHashMap<>();
+        private static final Set<Released> RELEASED = new HashSet<>();
+        private static final ReferenceQueue<ExtPreferencesSource> QUEUE = new ReferenceQueue<>();
+
+        /**
+         * Bumped on every event.
+         */
+        private final AtomicLong changes = new AtomicLong();
+
+        @NotNull
+        private final String name;
+
+        @NotNull
+        private final Preferences root;
+
+        // Guarded by Tracker.class.
+        private int users;
+
+        // All guarded by this.
+        private final List<Preferences> listened = new ArrayList<>();
+        private boolean closed;
+        private long walkedAt = -1;
+        private long walked;
+
+        private Tracker(@NotNull final String name,
+                        @NotNull final Preferences root) {
+            this.name = name;
+            this.root = root;
+            try {
+                this.listen(root);
+            }
+            catch (final KfgSourceException e) {
+                this.close();
+                throw e;
+            }
+        }
+
+        /**
+         * The tracker of the tree, used by the source until it's unreachable.
+         */
+        @NotNull
+        static Tracker track(@NotNull final String name,
+                             @NotNull final Preferences root,
+                             @NotNull final ExtPreferencesSource source) {
+            synchronized (Tracker.class) {
+                release();
+                Tracker tracker = TRACKERS.get(root);
+                if (tracker == null) {
+                    tracker = new Tracker(name, root);
+                    TRACKERS.put(root, tracker);
+                }
+                tracker.users++;
+                RELEASED.add(new Released(source, tracker));
+                return tracker;
+            }
+        }
+
+        static boolean isTracked(@NotNull final Preferences root) {
+            synchronized (Tracker.class) {
+                release();
+                return TRACKERS.containsKey(root);
+            }
+        }
+
+        /**
+         * Must hold the lock of Tracker.class. Stops the trackers no source
+         * uses anymore.
+         */
+        private static void release() {
+            Reference<?> ref;
+            while ((ref = QUEUE.poll()) != null) {
+                final Released released = (Released) ref;
+                RELEASED.remove(released);
+                if (--released.tracker.users == 0) {
+                    TRACKERS.remove(released.tracker.root);
+                    released.tracker.close();
+                }
+            }
+        }
+
+        /**
+         * Fingerprint of the keys, values and nodes of the whole tree, walked
+         * only if any event is received since the last walk.
+         */
+        synchronized long fingerprint() {
+            // Read before walking, an event meanwhile causes another walk.
+            final long changes = this.changes.get();
+            if (changes == this.walkedAt)
+                return this.walked;
+
+            final StringBuilder tree = new StringBuilder();
+            try {
+                walk(this.root, tree);
+            }
+            catch (final BackingStoreException | IllegalStateException e) {
+                throw new KfgSourceException(this.name,
+                    "could not read the java.util.prefs.Preferences source", e);
+            }
+            this.walked = ExtSourceFetcher.fingerprint(tree.toString());
+            this.walkedAt = changes;
+            return this.walked;
+        }
+
+        /**
+         * Writes the keys, values and nodes of the tree, each one prefixed by
+         * its length so no two different trees are written the same.
+         */
+        private static void walk(@NotNull final Preferences node,
+                                 @NotNull final StringBuilder tree) throws BackingStoreException {
+            final String[] keys = node.keys();
+            Arrays.sort(keys);
+            tree.append(keys.length).append(':');
+            for (final String key : keys) {
+                append(tree, key);
+                append(tree, node.get(key, null));
+            }
+
+            final String[] children = node.childrenNames();
+            Arrays.sort(children);
+            tree.append(children.length).append(':');
+            for (final String child : children) {
+                append(tree, child);
+                walk(node.node(child), tree);
+            }
+        }
+
+        private static void append(@NotNull final StringBuilder tree,
+                                   final String value) {
+            if (value == null)
+                tree.append("-:");
+            else
+                tree.append(value.length()).append(':').append(value);
+        }
+
+        private void listen(@NotNull final Preferences node) {
+            try {
+                synchronized (this) {
+                    if (this.closed)
+                        return;
+                    node.addNodeChangeListener(this);
+                    node.addPreferenceChangeListener(this);
+                    this.listened.add(node);
+                }
+                for (final String child : node.childrenNames())
+                    this.listen(node.node(child));
+            }
+            catch (final BackingStoreException | IllegalStateException e) {
+                throw new KfgSourceException(this.name,
+                    "could not listen to the java.util.prefs.Preferences source", e);
+            }
+        }
+
+        private synchronized void close() {
+            this.closed = true;
+            for (final Preferences node : this.listened)
+                try {
+                    node.removeNodeChangeListener(this);
+                    node.removePreferenceChangeListener(this);
+                }
+                catch (final IllegalArgumentException | IllegalStateException e) {
+                    // Removed meanwhile, along with its listeners.
+                }
+            this.listened.clear();
+        }
+
+        @Override
+        public void childAdded(final NodeChangeEvent evt) {
+            try {
+                this.listen(evt.getChild());
+            }
+            catch (final KfgSourceException e) {
+                // Removed meanwhile, its removal is reported as well. Must
+                // not throw on the preferences event thread anyway.
+            }
+            finally {
+                this.changes.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void childRemoved(final NodeChangeEvent evt) {
+            synchronized (this) {
+                this.listened.remove(evt.getChild());
+            }
+            this.changes.incrementAndGet();
+        }
+
+        @Override
+        public void preferenceChange(final PreferenceChangeEvent evt) {
+            this.changes.incrementAndGet();
+        }
+
+    }
+
+    /**
+     * Releases the tracker once the source is unreachable.
+     */
+    private static final class Released extends PhantomReference<ExtPreferencesSource> {
+
+        @NotNull
+        private final Tracker tracker;
+
+        private Released(@NotNull final ExtPreferencesSource source,
+                         @NotNull final Tracker tracker) {
+            super(source, Tracker.QUEUE);
+            this.tracker = tracker;
+        }
+
     }
 
 }
@@ -0,0 +1,81 @@
+package io.koosha.konfiguration.impl;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Computes {@link io.koosha.konfiguration.Source#changedKeys(io.koosha.konfiguration.Source)}
+ * of sources holding a tree, from the tree flattened into dotted keys.
+ */
+@ThreadSafe
+@ApiStatus.Internal
+final class ExtSourceChanges {
+
+    ExtSourceChanges() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Keys whose value differs between older and newer, along with all their
+     * parents.
+     *
+     * <p>Two branches (nested objects) at the same key are not compared, a
+     * change in them shows up as a change of one of their children.
+     *
+     * @param older    flattened tree of the older source.
+     * @param newer    flattened tree of the newer source.
+     * @param isBranch tells branches from leaves.
+     * @return changed keys.
+     */
+    @NotNull
+    @Contract(pure = true)
+    static Set<String> changedKeys(@NotNull final Map<String, ?> older,
+                                   @NotNull final Map<String, ?> newer,
+                                   @NotNull final Predicate<Object> isBranch) {
+        Objects.requireNonNull(older, "older");
+        Objects.requireNonNull(newer, "newer");
+        Objects.requireNonNull(isBranch, "isBranch");
+
+        final Set<String> changed = new HashSet<>();
+
+        for (final Map.Entry<String, ?> entry : newer.entrySet()) {
+            final String key = entry.getKey();
+            final Object now = entry.getValue();
+            if (!older.containsKey(key)) {
+                addWithParents(key, changed);
+                continue;
+            }
+            final Object was = older.get(key);
+            if (isBranch.test(was) && isBranch.test(now))
+                continue;
+            if (!Objects.equals(was, now))
+                addWithParents(key, changed);
+        }
+
+        for (final String key : older.keySet())
+            if (!newer.containsKey(key))
+                addWithParents(key, changed);
+
+        return changed;
+    }
+
+    private static void addWithParents(@NotNull final String key,
+                                       @NotNull final Set<String> into) {
+        String k = key;
+        while (into.add(k)) {
+            final int dot = k.lastIndexOf('.');
+            if (dot < 0)
+                return;
+            k = k.substring(0, dot);
+        }
+    }
+
+}
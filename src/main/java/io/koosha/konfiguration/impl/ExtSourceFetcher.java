@@ -0,0 +1,177 @@
+package io.koosha.konfiguration.impl;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Change detection of sources backed by a payload supplier, the payload
+ * being a {@link String} or the UTF-8 bytes of it in a {@link ByteBuffer} (see
+ * {@link ExtSourcePayload}).
+ *
+ * <p>Only a fingerprint of the payload a source was built from is kept, not
+ * the payload itself. {@link #hasUpdate()} fetches and fingerprints the payload
+ * once, and if it changed, keeps it so that {@link #update()} hands it to the
+ * updated copy of the source instead of fetching it again.
+ *
+ * <p>If the supplier is {@link Versioned}, the payload is not even fetched
+ * until the supplier's version moves.
+ */
+@ThreadSafe
+@ApiStatus.Internal
+final class ExtSourceFetcher {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @NotNull
+    private final Supplier<?> supplier;
+
+    private final long fingerprint;
+
+    /**
+     * Version of the {@link Versioned} supplier last looked at, unused for
+     * other suppliers.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Changed payload fetched by {@link #hasUpdate()}, not yet taken by
+     * {@link #update()}.
+     */
+    private final AtomicReference<Object> fetched = new AtomicReference<>();
+
+    /**
+     * Fingerprint of the payload last seen by {@link #hasUpdate()}.
+     */
+    private final AtomicLong pending = new AtomicLong();
+
+    /**
+     * @param supplier the payload supplier.
+     * @param current  the payload the owning source is built from.
+     */
+    ExtSourceFetcher(@NotNull final Supplier<?> supplier,
+                     @NotNull final Object current) {
+        Objects.requireNonNull(supplier, "supplier");
+        Objects.requireNonNull(current, "current");
+        this.supplier = supplier;
+        this.fingerprint = fingerprint(current);
+        this.pending.set(this.fingerprint);
+        if (supplier instanceof Versioned)
+            this.version.set(((Versioned<?>) supplier).readVersion());
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    Supplier<?> supplier() {
+        return this.supplier;
+    }
+
+    /**
+     * If the supplied payload changed since the owning source was built.
+     *
+     * @return true if the supplied payload changed.
+     */
+    boolean hasUpdate() {
+        if (this.supplier instanceof Versioned) {
+            final long version = ((Versioned<?>) this.supplier).version();
+            // Not moved since last looked, but maybe changed back then.
+            if (this.version.getAndSet(version) == version)
+                return this.fetched.get() != null;
+        }
+
+        final Object fetched = this.supplier.get();
+        final long fingerprint = fetched == null ? this.fingerprint : fingerprint(fetched);
+        this.pending.set(fingerprint);
+        if (fingerprint == this.fingerprint) {
+            // Changed back, a payload kept from before is stale.
+            this.fetched.set(null);
+            return false;
+        }
+        this.fetched.set(fetched);
+        return true;
+    }
+
+    /**
+     * Fingerprint of the payload seen by the last {@link #hasUpdate()}, that
+     * of the owning source if it did not change. Does not fetch.
+     *
+     * @return fingerprint of the supplied payload.
+     */
+    long pendingVersion() {
+        return this.pending.get();
+    }
+
+    /**
+     * The changed payload, the one fetched by {@link #hasUpdate()} if any.
+     *
+     * @return the changed payload, or null if it did not change.
+     */
+    @Nullable
+    Object update() {
+        final Object fetched = this.fetched.getAndSet(null);
+        if (fetched != null)
+            return fetched;
+
+        final Object fresh = this.supplier.get();
+        return fresh == null || fingerprint(fresh) == this.fingerprint ? null : fresh;
+    }
+
+    /**
+     * A payload supplier that tells when the payload it supplies might have
+     * changed, so that it's not fetched when it has not.
+     *
+     * @param <T> type of payload.
+     */
+    interface Versioned<T> extends Supplier<T> {
+
+        /**
+         * Current version, moves whenever the supplied payload might have
+         * changed.
+         *
+         * @return current version.
+         */
+        long version();
+
+        /**
+         * The version as of right before the last {@link #get()}.
+         *
+         * @return version of the last supplied payload.
+         */
+        long readVersion();
+
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the payload, the string's chars or the buffer's
+     * remaining bytes.
+     */
+    @Contract(pure = true)
+    static long fingerprint(@NotNull final Object payload) {
+        long hash = FNV_OFFSET;
+        if (payload instanceof ByteBuffer) {
+            final ByteBuffer bytes = (ByteBuffer) payload;
+            for (int i = bytes.position(); i < bytes.limit(); i++) {
+                hash ^= bytes.get(i) & 0xff;
+                hash *= FNV_PRIME;
+            }
+            return hash;
+        }
+
+        final String string = (String) payload;
+        for (int i = 0; i < string.length(); i++) {
+            hash ^= string.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,117 @@
+package io.koosha.konfiguration.impl;
+
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Payload of parser backed sources: either a {@link String}, or its UTF-8
+ * bytes in a {@link ByteBuffer} (possibly a memory mapped file), in which case
+ * it is parsed from the bytes instead of being decoded into a string first.
+ *
+ * <p>Only the remaining bytes of a buffer (position to limit) are the
+ * payload, and the buffer itself is never moved, so that the same buffer can be
+ * supplied again.
+ */
+@ThreadSafe
+@ApiStatus.Internal
+final class ExtSourcePayload {
+
+    ExtSourcePayload() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Checks the payload is of a supported type.
+     *
+     * @param payload the payload.
+     * @param name    name of payload, for error message.
+     * @return the payload.
+     * @throws NullPointerException     if payload is null.
+     * @throws IllegalArgumentException if payload is not a String or ByteBuffer.
+     */
+    @NotNull
+    @Contract("null, _ -> fail; !null, _ -> param1")
+    static Object check(final Object payload,
+                        @NotNull final String name) {
+        Objects.requireNonNull(payload, name);
+        if (!(payload instanceof String) && !(payload instanceof ByteBuffer))
+            throw new IllegalArgumentException(name + " is not a String or ByteBuffer: " + payload.getClass());
+        return payload;
+    }
+
+    /**
+     * Copy of the bytes, to keep as a const payload.
+     *
+     * @param bytes the bytes.
+     * @return read only buffer over a copy of bytes.
+     */
+    @NotNull
+    @Contract(pure = true)
+    static ByteBuffer copy(@NotNull final byte[] bytes) {
+        Objects.requireNonNull(bytes, "bytes");
+        return ByteBuffer.wrap(bytes.clone()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Reads the payload as a stream of UTF-8 bytes, a string payload is
+     * encoded.
+     *
+     * @param payload the payload.
+     * @return payload bytes.
+     */
+    @NotNull
+    static InputStream stream(@NotNull final Object payload) {
+        final ByteBuffer bytes = payload instanceof ByteBuffer
+            ? ((ByteBuffer) payload).duplicate()
+            : ByteBuffer.wrap(((String) payload).getBytes(StandardCharsets.UTF_8));
+
+        return new InputStream() {
+            @Override
+            public int read() {
+                return bytes.hasRemaining() ? bytes.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(@NotNull final byte[] b,
+                            final int off,
+                            final int len) {
+                if (len == 0)
+                    return 0;
+                if (!bytes.hasRemaining())
+                    return -1;
+                final int n = Math.min(len, bytes.remaining());
+                bytes.get(b, off, n);
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return bytes.remaining();
+            }
+        };
+    }
+
+    /**
+     * Reads the payload as chars, bytes are decoded as UTF-8 while being read.
+     *
+     * @param payload the payload.
+     * @return payload chars.
+     */
+    @NotNull
+    static Reader reader(@NotNull final Object payload) {
+        return payload instanceof String
+            ? new StringReader((String) payload)
+            : new InputStreamReader(stream(payload), StandardCharsets.UTF_8);
+    }
+
+}
@@ -1,8 +1,13 @@
 package io.koosha.konfiguration.impl;
 
+import io.koosha.konfiguration.DummyV;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KfgAssertionException;
 import io.koosha.konfiguration.KfgSourceException;
+import io.koosha.konfiguration.KfgTypeException;
+import io.koosha.konfiguration.Lookup;
 import io.koosha.konfiguration.Source;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.Immutable;
 import net.jcip.annotations.ThreadSafe;
@@ -11,7 +16,6 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.Yaml;
-import org.yaml.snakeyaml.constructor.BaseConstructor;
 import org.yaml.snakeyaml.constructor.Constructor;
 import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.nodes.MappingNode;
@@ -24,10 +28,15 @@ import org.yaml.snakeyaml.nodes.Tag;
 import java.beans.ConstructorProperties;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Parameter;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -35,7 +44,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
@@ -53,7 +61,10 @@ import static java.util.Arrays.asList;
 @ThreadSafe
 final class ExtYamlSource extends Source {
 
-    private static final Pattern DOT = Pattern.compile(Pattern.quote("."));
+    /**
+     * Marks absent keys, as opposed to keys holding null.
+     */
+    private static final Object MISSING = new Object();
 
     private static Class<?> upper(@NotNull final Class<?> klass) {
         if (klass == boolean.class)
@@ -288,14 +299,129 @@ final class ExtYamlSource extends Source {
                 }
             }
 
-            private int indexOf(@NotNull final String[] annotatedNames,
-                                @NotNull final String name) {
-                for (int i = 0; i < annotatedNames.length; i++)
-                    if (Objects.equals(annotatedNames[i], name))
-                        return i;
-                throw new NoSuchElementException();
+        }
+
+        private static int indexOf(@NotNull final String[] annotatedNames,
+                                   @NotNull final String name) {
+            for (int i = 0; i < annotatedNames.length; i++)
+                if (Objects.equals(annotatedNames[i], name))
+                    return i;
+            throw new NoSuchElementException();
+        }
+
+        /**
+         * Construct type from an already loaded map, the same way
+         * {@link KonstructMapping} constructs it from a mapping node, without
+         * dumping the map to yaml and loading it back.
+         *
+         * @param map  the loaded map.
+         * @param type the type to construct, not a map or a collection.
+         * @return the constructed object.
+         */
+        @NotNull
+        Object konstruct(@NotNull final Map<?, ?> map,
+                         @NotNull final Class<?> type) {
+            Objects.requireNonNull(map, "map");
+            Objects.requireNonNull(type, "type");
+
+            final List<Param> consArgs = new ArrayList<>(map.size());
+            for (final Map.Entry<?, ?> entry : map.entrySet())
+                consArgs.add(param(String.valueOf(entry.getKey()), entry.getValue()));
+
+            final Map<String, Param> byName = consArgs
+                .stream()
+                .collect(Collectors.toMap(ca -> ca.name, Function.identity()));
+
+            final List<String> names = consArgs
+                .stream()
+                .map(t -> t.name)
+                .collect(Collectors.toList());
+
+            final java.lang.reflect.Constructor<?> c0 = find(marker, markerExtractor, type, byName, names);
+            final String[] annotatedNames = markerExtractor.apply(c0.getAnnotation(marker));
+
+            final Object[] values = new Object[annotatedNames.length];
+            for (final Param pm : consArgs)
+                values[indexOf(annotatedNames, pm.name)] = pm.value;
+
+            try {
+                c0.setAccessible(true);
+                return c0.newInstance(values);
+            }
+            catch (Exception e) {
+                throw new YAMLException(e);
+            }
+        }
+
+        /**
+         * Typed the way {@link KonstructMapping} types a value by its yaml
+         * tag (ints as Integer, floats as Float).
+         */
+        @NotNull
+        private static Param param(@NotNull final String name,
+                                   @Nullable final Object value) {
+            final Param param = new Param(name);
+            if (value == null) {
+                param.type = Object.class;
+            }
+            else if (value instanceof Float || value instanceof Double) {
+                param.type = Float.class;
+                param.value = ((Number) value).floatValue();
+            }
+            else if (value instanceof Long
+                && Integer.MIN_VALUE <= (Long) value && (Long) value <= Integer.MAX_VALUE) {
+                param.type = Integer.class;
+                param.value = ((Long) value).intValue();
+            }
+            else if (value instanceof Number) {
+                param.type = Integer.class;
+                param.value = value;
+            }
+            else if (value instanceof Map) {
+                param.type = Map.class;
+                param.value = copy(value);
+            }
+            else if (value instanceof List) {
+                param.type = List.class;
+                param.value = copy(value);
+            }
+            else if (value instanceof Set) {
+                param.type = Set.class;
+                param.value = copy(value);
             }
+            else {
+                param.type = value.getClass();
+                param.value = value;
+            }
+            return param;
+        }
 
+        /**
+         * Deep copy of loaded maps and collections, so that constructed
+         * objects do not share them with the source.
+         *
+         * @param value the loaded value.
+         * @return copy of value, or value itself if it's not a map or a
+         * collection.
+         */
+        @Nullable
+        static Object copy(@Nullable final Object value) {
+            if (value instanceof Map) {
+                final Map<Object, Object> copy = new LinkedHashMap<>();
+                ((Map<?, ?>) value).forEach((k, v) -> copy.put(k, copy(v)));
+                return copy;
+            }
+            if (value instanceof Set) {
+                final Set<Object> copy = new LinkedHashSet<>();
+                ((Set<?>) value).forEach(v -> copy.add(copy(v)));
+                return copy;
+            }
+            if (value instanceof List) {
+                final List<Object> copy = new ArrayList<>(((List<?>) value).size());
+                ((List<?>) value).forEach(v -> copy.add(copy(v)));
+                return copy;
+            }
+            return value;
         }
 
         private static class Param {
@@ -340,7 +466,7 @@ final class ExtYamlSource extends Source {
 
     }
 
-    static final BaseConstructor defaultBaseConstructor = new ByConstructorConstructor<>(
+    static final ByConstructorConstructor<ConstructorProperties> defaultBaseConstructor = new ByConstructorConstructor<>(
         ConstructorProperties.class,
         ConstructorProperties::value
     );
@@ -349,14 +475,29 @@ final class ExtYamlSource extends Source {
         ThreadLocal.withInitial(() -> new Yaml(defaultBaseConstructor));
 
     private final Supplier<Yaml> mapper;
-    private final Supplier<String> yaml;
+    private final ExtSourceFetcher fetcher;
 
-    private final String lastYaml;
     private final Map<String, ?> root;
 
+    /**
+     * If the supplied mapper is the default one, in which case loaded values
+     * are converted directly with {@link #defaultBaseConstructor}. Other
+     * mappers might be configured in ways only they know of, values are
+     * dumped and loaded back through them.
+     */
+    private final boolean direct;
+
     @NotNull
     private final String name;
 
+    /**
+     * Every dotted path of {@link #root} (through maps, including
+     * intermediate maps) to its value, computed on first use. See
+     * {@link #keys()} and {@link #changedKeys(Source)}.
+     */
+    @Nullable
+    private volatile Map<String, Object> flat;
+
     /**
      * Creates an instance with the given Yaml parser.
      *
@@ -371,21 +512,47 @@ final class ExtYamlSource extends Source {
     public ExtYamlSource(@NotNull final String name,
                          @NotNull final Supplier<String> yamlSupplier,
                          @NotNull final Supplier<Yaml> mapper) {
+        this(name,
+            Objects.requireNonNull(yamlSupplier, "yamlSupplier"),
+            mapper,
+            Objects.requireNonNull(yamlSupplier.get(), "supplied storage is null"));
+    }
+
+    /**
+     * Same as {@link #ExtYamlSource(String, Supplier, Supplier)} but reads the
+     * supplied UTF-8 bytes as a stream, without decoding them into a string
+     * first.
+     */
+    @NotNull
+    static ExtYamlSource bytes(@NotNull final String name,
+                               @NotNull final Supplier<ByteBuffer> yamlSupplier,
+                               @NotNull final Supplier<Yaml> mapper) {
+        Objects.requireNonNull(yamlSupplier, "yamlSupplier");
+        return new ExtYamlSource(name,
+            yamlSupplier,
+            mapper,
+            Objects.requireNonNull(yamlSupplier.get(), "supplied storage is null"));
+    }
+
+    private ExtYamlSource(@NotNull final String name,
+                          @NotNull final Supplier<?> yamlSupplier,
+                          @NotNull final Supplier<Yaml> mapper,
+                          @NotNull final Object newYaml) {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(yamlSupplier, "yamlSupplier");
         Objects.requireNonNull(mapper, "mapper");
+        ExtSourcePayload.check(newYaml, "newYaml");
 
         this.name = name;
-        this.yaml = yamlSupplier;
+        this.fetcher = new ExtSourceFetcher(yamlSupplier, newYaml);
         this.mapper = mapper;
 
-        final String newYaml = this.yaml.get();
-        Objects.requireNonNull(newYaml, "supplied storage is null");
-        this.lastYaml = newYaml;
-
         final Yaml newMapper = mapper.get();
         Objects.requireNonNull(newMapper, "supplied mapper is null");
-        this.root = Collections.unmodifiableMap(newMapper.load(newYaml));
+        this.root = Collections.unmodifiableMap(newYaml instanceof String
+            ? newMapper.load((String) newYaml)
+            : newMapper.load(ExtSourcePayload.stream(newYaml)));
+        this.direct = newMapper == defaultYamlSupplier.get();
     }
 
 
@@ -439,6 +606,12 @@ final class ExtYamlSource extends Source {
         Objects.requireNonNull(type, "type");
 
         final Object g = this.get(key);
+        if (this.direct) {
+            if (!(g instanceof List))
+                throw new KfgTypeException(this.name(), key, type.asList(), g);
+            return Collections.unmodifiableList((List<?>) ByConstructorConstructor.copy(g));
+        }
+
         final Yaml mapper = this.mapper.get();
         final String yamlAgain = mapper.dump(g);
         final List<?> asList = (List<?>) mapper.loadAs(yamlAgain, type.klass());
@@ -465,6 +638,12 @@ final class ExtYamlSource extends Source {
                 "parametrized type are not supported by yaml source");
 
         final Object g = this.get(key);
+        if (this.direct
+            && g instanceof Map
+            && !Map.class.isAssignableFrom(type.klass())
+            && !Collection.class.isAssignableFrom(type.klass()))
+            return defaultBaseConstructor.konstruct((Map<?, ?>) g, type.klass());
+
         final Yaml mapper = this.mapper.get();
         final String yamlAgain = mapper.dump(g);
         return mapper.loadAs(yamlAgain, type.klass());
@@ -485,42 +664,188 @@ final class ExtYamlSource extends Source {
     public boolean has(@NotNull final String key,
                        @NotNull final Kind<?> type) {
         Objects.requireNonNull(key, "key");
+        return this.lookup(KeyPath.of(key), type).exists();
+    }
+
+    @Override
+    @NotNull
+    public Lookup lookup(@NotNull final KeyPath key,
+                         @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        final Object value = this.find(key);
+        if (value == MISSING)
+            return Lookup.MISSING;
+        if (value == null)
+            return Lookup.NULL;
+
+        if (type.isBuiltin())
+            return canRead(type, value) ? Lookup.FOUND : Lookup.TYPE_MISMATCH;
         if (type.isParametrized())
-            return false;
+            return Lookup.TYPE_MISMATCH;
+        if (type.klass().isInstance(value))
+            return Lookup.FOUND;
+
+        // Only the mapper knows if it can read custom types.
         try {
-            this.custom0(key, type);
-            return true;
+            this.custom0(key.key(), type);
+            return Lookup.FOUND;
         }
-        catch (Exception e) {
-            return false;
+        catch (final Exception e) {
+            return Lookup.TYPE_MISMATCH;
         }
     }
 
     @Override
-    @Contract(pure = true)
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <U> K<U> resolve(@NotNull final KeyPath key,
+                            @NotNull final Kind<U> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        if (type.isBuiltin())
+            return super.resolve(key, type);
+
+        final Object found = this.find(key);
+        if (found == MISSING || type.isParametrized())
+            return DummyV.missing(type, key.key());
+        if (found == null)
+            return DummyV.null_(type, key.key());
+        if (type.klass().isInstance(found))
+            return DummyV.of((U) found, type, key.key());
+
+        // Deserialize once, failing to do so is the type check.
+        final Object value;
+        try {
+            value = this.custom0(key.key(), type);
+        }
+        catch (final RuntimeException e) {
+            return DummyV.missing(type, key.key());
+        }
+        return DummyV.of((U) value, type, key.key());
+    }
+
+    @Override
     public boolean hasUpdate() {
-        final String newYaml = yaml.get();
-        return newYaml != null && !Objects.equals(newYaml, lastYaml);
+        return this.fetcher.hasUpdate();
+    }
+
+    @Override
+    public long pendingVersion() {
+        return this.fetcher.pendingVersion();
     }
 
     @Override
-    @Contract(pure = true)
     @NotNull
     public Source updatedCopy() {
-        return this.hasUpdate()
-            ? new ExtYamlSource(name(), yaml, mapper)
-            : this;
+        final Object newYaml = this.fetcher.update();
+        return newYaml == null
+            ? this
+            : new ExtYamlSource(name(), this.fetcher.supplier(), mapper, newYaml);
+    }
+
+
+    @Override
+    @NotNull
+    @Contract(pure = true)
+    public Set<String> keys() {
+        return this.flat().keySet();
     }
 
+    @Override
+    @Nullable
+    @Contract(pure = true)
+    public Set<String> changedKeys(@NotNull final Source previous) {
+        Objects.requireNonNull(previous, "previous");
+        if (!(previous instanceof ExtYamlSource))
+            return null;
+        return ExtSourceChanges.changedKeys(
+            ((ExtYamlSource) previous).flat(),
+            this.flat(),
+            it -> it instanceof Map);
+    }
+
+    @NotNull
+    private Map<String, Object> flat() {
+        Map<String, Object> flat = this.flat;
+        if (flat == null) {
+            final Map<String, Object> collected = new HashMap<>();
+            flatten(this.root, "", collected);
+            flat = Collections.unmodifiableMap(collected);
+            this.flat = flat;
+        }
+        return flat;
+    }
+
+    private static void flatten(@NotNull final Map<?, ?> node,
+                                @NotNull final String prefix,
+                                @NotNull final Map<String, Object> into) {
+        for (final Map.Entry<?, ?> entry : node.entrySet()) {
+            final String key = prefix + entry.getKey();
+            into.put(key, entry.getValue());
+            if (entry.getValue() instanceof Map)
+                flatten((Map<?, ?>) entry.getValue(), key + ".", into);
+        }
+    }
+
+    /**
+     * Value of key, or {@link #MISSING} if there is no such key (or one of
+     * its parents is not a map).
+     */
+    @Nullable
+    private Object find(@NotNull final KeyPath key) {
+        Map<?, ?> node = this.root;
+        for (int i = 0; i < key.size() - 1; i++) {
+            final Object n = node.get(key.part(i));
+            if (!(n instanceof Map))
+                return MISSING;
+            node = (Map<?, ?>) n;
+        }
+        final Object value = node.get(key.last());
+        return value != null || node.containsKey(key.last()) ? value : MISSING;
+    }
+
+    /**
+     * If the typed getters can read value as type, only meaningful for
+     * {@link Kind#isBuiltin() builtin} kinds.
+     */
+    @Contract(pure = true)
+    private static boolean canRead(@NotNull final Kind<?> type,
+                                   @NotNull final Object value) {
+        if (type.isBool())
+            return value instanceof Boolean;
+        if (type.isChar())
+            return value instanceof Character
+                || value instanceof String && ((String) value).length() == 1;
+        if (type.isString())
+            return value instanceof String;
+        if (type.isCollection())
+            return value instanceof List;
+        if (type.isFloat() || type.isDouble())
+            return value instanceof Number;
+
+        if (!(value instanceof Long
+            || value instanceof Integer
+            || value instanceof Short
+            || value instanceof Byte))
+            return false;
+
+        final long l = ((Number) value).longValue();
+        return type.isByte() && Byte.MIN_VALUE <= l && l <= Byte.MAX_VALUE
+            || type.isShort() && Short.MIN_VALUE <= l && l <= Short.MAX_VALUE
+            || type.isInt() && Integer.MIN_VALUE <= l && l <= Integer.MAX_VALUE
+            || type.isLong();
+    }
 
     private Object get(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
         Map<?, ?> node = root;
-        final String[] split = DOT.split(key);
-        for (int i = 0; i < split.length; i++) {
-            final String k = split[i];
-            final Object n = node.get(k);
-            final boolean isLast = i == split.length - 1;
+        final KeyPath path = KeyPath.of(key);
+        for (int i = 0; i < path.size(); i++) {
+            final Object n = node.get(path.part(i));
+            final boolean isLast = i == path.size() - 1;
 
             if (isLast)
                 return n;
@@ -12,6 +12,8 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.Yaml;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -19,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import java.util.prefs.Preferences;
 
@@ -139,6 +142,20 @@ public final class Factory implements KonfigurationFactory {
         return kombine(name, k);
     }
 
+    @Override
+    @NotNull
+    @Contract(pure = true,
+              value = "_, _, _ -> new")
+    public Konfiguration map(@NotNull final String name,
+                             @NotNull final Supplier<Map<String, ?>> storage,
+                             @NotNull final LongSupplier version) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(storage, "storage");
+        Objects.requireNonNull(version, "version");
+        final Konfiguration k = new ExtMapSource(name, storage, version);
+        return kombine(name, k);
+    }
+
     @Override
     @NotNull
     @Contract(pure = true,
@@ -164,6 +181,18 @@ public final class Factory implements KonfigurationFactory {
         return kombine(name, k);
     }
 
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration properties(@NotNull final String name,
+                                    @NotNull final Path file) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(file, "file");
+
+        final ExtFileWatch watch = new ExtFileWatch(name, file);
+        return map(name, watch::properties, watch::version);
+    }
+
     // ================================================================ JACKSON
 
     @Override
@@ -174,7 +203,30 @@ public final class Factory implements KonfigurationFactory {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(json, "json");
 
-        return jacksonJson(name, json, ExtJacksonSourceJsonHelper::mapper);
+        return jacksonJson(name, json, ExtJacksonSourceJsonHelper::shared);
+    }
+
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration jacksonJson(@NotNull final String name,
+                                     @NotNull final Path file) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(file, "file");
+
+        return jacksonJsonBytes(name, new ExtFileWatch(name, file));
+    }
+
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration jacksonJsonBytes(@NotNull final String name,
+                                          @NotNull final Supplier<ByteBuffer> bytes) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(bytes, "bytes");
+
+        final Konfiguration k = ExtJacksonSource.bytes(name, bytes, ExtJacksonSourceJsonHelper::shared);
+        return kombine(name, k);
     }
 
     @Override
@@ -224,7 +276,30 @@ public final class Factory implements KonfigurationFactory {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(yaml, "yaml");
 
-        return jacksonYaml(name, yaml, ExtJacksonSourceYamlHelper::mapper);
+        return jacksonYaml(name, yaml, ExtJacksonSourceYamlHelper::shared);
+    }
+
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration jacksonYaml(@NotNull final String name,
+                                     @NotNull final Path file) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(file, "file");
+
+        return jacksonYamlBytes(name, new ExtFileWatch(name, file));
+    }
+
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration jacksonYamlBytes(@NotNull final String name,
+                                          @NotNull final Supplier<ByteBuffer> bytes) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(bytes, "bytes");
+
+        final Konfiguration k = ExtJacksonSource.bytes(name, bytes, ExtJacksonSourceYamlHelper::shared);
+        return kombine(name, k);
     }
 
     @Override
@@ -299,6 +374,29 @@ public final class Factory implements KonfigurationFactory {
         return snakeYaml(name, yaml, ExtYamlSource.defaultYamlSupplier::get);
     }
 
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration snakeYaml(@NotNull final String name,
+                                   @NotNull final Path file) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(file, "file");
+
+        return snakeYamlBytes(name, new ExtFileWatch(name, file));
+    }
+
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration snakeYamlBytes(@NotNull final String name,
+                                        @NotNull final Supplier<ByteBuffer> bytes) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(bytes, "bytes");
+
+        final Konfiguration k = ExtYamlSource.bytes(name, bytes, ExtYamlSource.defaultYamlSupplier::get);
+        return kombine(name, k);
+    }
+
     @Override
     @NotNull
     @Contract("_, _, _ -> new")
@@ -323,6 +421,28 @@ public final class Factory implements KonfigurationFactory {
         return gsonJson(name, json, ExtGsonSourceHelper::mapper);
     }
 
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration gsonJson(@NotNull final String name,
+                                  @NotNull final Path file) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(file, "file");
+
+        return gsonJsonBytes(name, new ExtFileWatch(name, file));
+    }
+
+    @Override
+    @NotNull
+    @Contract("_, _ -> new")
+    public Konfiguration gsonJsonBytes(@NotNull final String name,
+                                       @NotNull final Supplier<ByteBuffer> bytes) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(bytes, "bytes");
+
+        return ExtGsonJsonSource.bytes(name, bytes, ExtGsonSourceHelper::mapper);
+    }
+
     @Override
     @NotNull
     public Konfiguration gsonJson(@NotNull final String name,
@@ -1,15 +1,20 @@
 package io.koosha.konfiguration.impl;
 
+import io.koosha.konfiguration.BatchKeyObserver;
+import io.koosha.konfiguration.BoolK;
+import io.koosha.konfiguration.DoubleK;
 import io.koosha.konfiguration.Handle;
+import io.koosha.konfiguration.IntK;
 import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KeyObserver;
 import io.koosha.konfiguration.KfgIllegalArgumentException;
 import io.koosha.konfiguration.KfgIllegalStateException;
-import io.koosha.konfiguration.KfgMissingKeyException;
 import io.koosha.konfiguration.Konfiguration;
 import io.koosha.konfiguration.KonfigurationManager;
+import io.koosha.konfiguration.LongK;
 import io.koosha.konfiguration.Source;
 import io.koosha.konfiguration.SubsetView;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
@@ -17,20 +22,23 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
  * Almost Thread-safe, <b>NOT</b> immutable.
+ *
+ * <p>Reads go through the current {@link KombinerSnapshot} and never lock,
+ * values missing from the cache are issued by the snapshot itself, per key.
+ * The lock is only taken to swap snapshots during an update, and to manage
+ * observers.
  */
 @ApiStatus.Internal
 final class Kombiner implements Konfiguration {
@@ -38,9 +46,6 @@ final class Kombiner implements Konfiguration {
     @NotNull
     private final String name;
 
-    @NotNull
-    final KombinerSources sources;
-
     @NotNull
     final KombinerLock lock;
 
@@ -50,8 +55,10 @@ final class Kombiner implements Konfiguration {
     @Nullable
     private volatile KonfigurationManager man;
 
-    final Set<Kind<?>> issuedKeys = new HashSet<>();
-    private final Map<Kind<?>, ? super Object> cache = new HashMap<>();
+    @NotNull
+    private volatile KombinerSnapshot snapshot;
+
+    final Set<Kind<?>> issuedKeys = ConcurrentHashMap.newKeySet();
 
     final boolean updatable;
 
@@ -62,7 +69,7 @@ final class Kombiner implements Konfiguration {
         sources.stream()
                .flatMap(source ->
                    source instanceof Kombiner
-                       ? ((Kombiner) source).sources.sources().stream()
+                       ? ((Kombiner) source).snapshot().sources.sources().stream()
                        : Stream.of(source))
                .peek(source -> Objects.requireNonNull(source, "null in config sources"))
                .peek(source -> {
@@ -99,9 +106,7 @@ final class Kombiner implements Konfiguration {
         this.lock = new KombinerLock(name, lockWaitTimeMillis, fairLock);
         this.observers = new KombinerObservers(this);
         this.man = new KombinerManager(this);
-        this.sources = new KombinerSources();
-
-        this.sources.replaceSources(newSources);
+        this.snapshot = new KombinerSnapshot(0, new KombinerSources(newSources), Collections.emptyMap());
     }
 
     // =========================================================================
@@ -116,104 +121,79 @@ final class Kombiner implements Konfiguration {
         return lock.doWriteLocked(func);
     }
 
+    @NotNull
+    @Contract(pure = true)
+    KombinerSnapshot snapshot() {
+        return this.snapshot;
+    }
+
     <U> K<U> k(@NotNull final String key,
                @NotNull final Kind<U> type) {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final Kind<U> withKey = type.withKey(key);
-
-        final boolean contains = this.r(() -> this.issuedKeys.contains(withKey));
-
-        if (!contains)
-            this.w(() -> {
-                this.issuedKeys.add(withKey);
-                return null;
-            });
-
+        this.issuedKeys.add(type.withKey(key));
         return new KombinerK<>(this, key, type);
     }
 
-    @Nullable
-    @SuppressWarnings("unchecked")
-    <U> U getCachedValueOrIssueIt(@NotNull final String key,
-                                  @NotNull final Kind<U> type) {
+    /**
+     * Slot of key in the current snapshot, issued from the sources if not
+     * cached yet.
+     *
+     * @param key the key (with it's {@link Kind#key()} set) to look up.
+     * @return slot holding the value of key, or a {@link KombinerSlot#missing}
+     * slot if no source has the key.
+     */
+    @NotNull
+    KombinerSlot slot(@NotNull final Kind<?> key) {
         Objects.requireNonNull(key, "key");
-        Objects.requireNonNull(type, "type");
 
-        final Kind<U> t = type.withKey(key);
-
-        final AtomicBoolean hadValue = new AtomicBoolean(false);
-        final U value = this.r(() -> {
-            if (cache.containsKey(t)) {
-                hadValue.set(true);
-                return (U) cache.get(t);
-            }
-            return null;
-        });
-        if (hadValue.get())
-            return value;
-
-        return this.w(() -> cache.containsKey(t)
-            ? (U) cache.get(t)
-            : (U) this.issueValue(t));
+        final KombinerSnapshot snapshot = this.snapshot;
+        final KombinerSlot slot = snapshot.slot(key);
+        return slot != null
+            ? slot
+            : snapshot.issue(key, k -> this.issueSlot(snapshot, k));
     }
 
     @SuppressWarnings("unchecked")
-    <U> Optional<U> getCachedValue(@NotNull final String key,
+    <U> Optional<U> getCachedValue(@NotNull final KombinerSnapshot snapshot,
+                                   @NotNull final String key,
                                    @NotNull final Kind<U> type) {
+        Objects.requireNonNull(snapshot, "snapshot");
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final Kind<U> t = type.withKey(key);
-
-        return cache.containsKey(t)
-            ? Optional.ofNullable((U) cache.get(t))
+        final KombinerSlot slot = snapshot.slot(type.withKey(key));
+        return slot != null
+            ? Optional.ofNullable((U) slot.value)
             : Optional.empty();
     }
 
-    @Nullable
-    Object issueValue(@NotNull final Kind<?> key) {
+    @NotNull
+    KombinerSlot issueSlot(@NotNull final KombinerSnapshot snapshot,
+                           @NotNull final Kind<?> key) {
+        Objects.requireNonNull(snapshot, "snapshot");
         Objects.requireNonNull(key, "key");
 
         final String strKey = key.key().orElseThrow(
             () -> new KfgIllegalStateException(this.name, "missing key"));
+        final KeyPath path = KeyPath.of(strKey);
 
-        final Optional<Source> find = this
-            .sources
-            .sources()
-            .stream()
-            .filter(source -> source.has(strKey, key))
-            .findFirst();
-
-        if (!find.isPresent())
-            throw new KfgMissingKeyException(this.name(), strKey, key);
+        final K<?> resolved = snapshot.sources.resolve(path, key);
+        if (!resolved.exists())
+            return KombinerSlot.missing(snapshot.generation);
 
         this.issuedKeys.add(key.withKey(strKey));
-        final Object value = find.get().custom(strKey, key).v();
-        this.cache.put(key, value);
-        return value;
-    }
-
-    boolean hasInCache(@NotNull final Kind<?> key) {
-        Objects.requireNonNull(key, "key");
-        key.key().orElseThrow(() -> new KfgIllegalStateException(this.name(), "missing key"));
-        return this.cache.containsKey(key);
-    }
-
-    @NotNull
-    Map<Kind<?>, Object> cacheCopy() {
-        return new HashMap<>(this.cache);
+        return new KombinerSlot(snapshot.generation, resolved.v());
     }
 
-    void replaceCache(@NotNull final Map<Kind<?>, Object> copy) {
-        Objects.requireNonNull(copy, "copy");
+    void replaceSnapshot(@NotNull final KombinerSnapshot next) {
+        Objects.requireNonNull(next, "next");
 
         if (!this.updatable)
             throw new KfgIllegalStateException(this.name, "konfiguration is not updatable");
 
-        this.cache.clear();
-        this.cache.putAll(copy);
+        this.snapshot = next;
     }
 
     // =========================================================================
@@ -238,9 +218,10 @@ final class Kombiner implements Konfiguration {
 
     @Override
     @NotNull
-    public K<Boolean> bool(@NotNull final String key) {
+    public BoolK bool(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
-        return this.k(key, Kind.BOOL);
+        this.issuedKeys.add(Kind.BOOL.withKey(key));
+        return new KombinerK.OfBool(this, key);
     }
 
     @Override
@@ -266,16 +247,18 @@ final class Kombiner implements Konfiguration {
 
     @Override
     @NotNull
-    public K<Integer> int_(@NotNull final String key) {
+    public IntK int_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
-        return this.k(key, Kind.INT);
+        this.issuedKeys.add(Kind.INT.withKey(key));
+        return new KombinerK.OfInt(this, key);
     }
 
     @Override
     @NotNull
-    public K<Long> long_(@NotNull final String key) {
+    public LongK long_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
-        return this.k(key, Kind.LONG);
+        this.issuedKeys.add(Kind.LONG.withKey(key));
+        return new KombinerK.OfLong(this, key);
     }
 
     @Override
@@ -287,9 +270,10 @@ final class Kombiner implements Konfiguration {
 
     @Override
     @NotNull
-    public K<Double> double_(@NotNull final String key) {
+    public DoubleK double_(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
-        return this.k(key, Kind.DOUBLE);
+        this.issuedKeys.add(Kind.DOUBLE.withKey(key));
+        return new KombinerK.OfDouble(this, key);
     }
 
     @Override
@@ -332,8 +316,20 @@ final class Kombiner implements Konfiguration {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        final Kind<?> t = type.withKey(key);
-        return this.r(() -> this.hasInCache(t) || this.sources.has(key, type));
+        return this.has(KeyPath.of(key), type);
+    }
+
+    @Override
+    public boolean has(@NotNull final KeyPath key,
+                       @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        final KombinerSnapshot snapshot = this.snapshot;
+        final KombinerSlot slot = snapshot.slot(type.withKey(key.key()));
+        return slot != null
+            ? !slot.missing
+            : snapshot.sources.has(key, type);
     }
 
     @NotNull
@@ -362,6 +358,32 @@ final class Kombiner implements Konfiguration {
         return observers.registerHard(observer, key);
     }
 
+    @NotNull
+    @Override
+    public Handle registerSoft(@NotNull final BatchKeyObserver observer,
+                               @NotNull final Collection<String> keys) {
+        Objects.requireNonNull(observer, "observer");
+        Objects.requireNonNull(keys, "keys");
+
+        if (!this.updatable)
+            return HandleImpl.NONE;
+
+        return observers.registerSoft(observer, keys);
+    }
+
+    @Override
+    @NotNull
+    public Handle register(@NotNull final BatchKeyObserver observer,
+                           @NotNull final Collection<String> keys) {
+        Objects.requireNonNull(observer, "observer");
+        Objects.requireNonNull(keys, "keys");
+
+        if (!this.updatable)
+            return HandleImpl.NONE;
+
+        return observers.registerHard(observer, keys);
+    }
+
     @Override
     public void deregister(@NotNull final Handle observer,
                            @NotNull final String key) {
@@ -1,9 +1,14 @@
 package io.koosha.konfiguration.impl;
 
+import io.koosha.konfiguration.BoolK;
+import io.koosha.konfiguration.DoubleK;
 import io.koosha.konfiguration.Handle;
+import io.koosha.konfiguration.IntK;
 import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KeyObserver;
 import io.koosha.konfiguration.KfgMissingKeyException;
+import io.koosha.konfiguration.LongK;
+import io.koosha.konfiguration.Lookup;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.ThreadSafe;
 import org.jetbrains.annotations.ApiStatus;
@@ -13,12 +18,19 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
 
+/**
+ * Konfig value handle bound to a slot in its kombiner's cache.
+ *
+ * <p>As long as the kombiner is not updated, reading the value is a check of
+ * the slot generation and one field read. The slot is resolved again only
+ * after an update has bumped the generation.
+ */
 @ThreadSafe
 @ApiStatus.Internal
-final class KombinerK<U> implements K<U> {
+class KombinerK<U> implements K<U> {
 
     @NotNull
-    private final Kombiner origin;
+    final Kombiner origin;
 
     @NotNull
     private final String key;
@@ -26,9 +38,19 @@ final class KombinerK<U> implements K<U> {
     @NotNull
     private final Kind<U> type;
 
-    public KombinerK(@NotNull final Kombiner origin,
-                     @NotNull final String key,
-                     @NotNull final Kind<U> type) {
+    @NotNull
+    private final Kind<U> keyed;
+
+    /**
+     * Last resolved slot. Not volatile on purpose: slots are immutable, a
+     * thread seeing a stale (or no) slot only resolves it once more.
+     */
+    @Nullable
+    private KombinerSlot slot;
+
+    KombinerK(@NotNull final Kombiner origin,
+              @NotNull final String key,
+              @NotNull final Kind<U> type) {
         Objects.requireNonNull(origin, "origin");
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
@@ -36,6 +58,7 @@ final class KombinerK<U> implements K<U> {
         this.origin = origin;
         this.key = key;
         this.type = type;
+        this.keyed = type.withKey(key);
     }
 
 
@@ -52,10 +75,69 @@ final class KombinerK<U> implements K<U> {
     }
 
 
+    @NotNull
+    final KombinerSlot slot() {
+        KombinerSlot slot = this.slot;
+        if (slot == null || slot.generation != this.origin.snapshot().generation) {
+            slot = this.origin.slot(this.keyed);
+            this.slot = slot;
+        }
+        return slot;
+    }
+
+    /**
+     * Same as {@link #slot()} but fails on missing keys, just as {@link #v()}.
+     */
+    @NotNull
+    final KombinerSlot slotPresent() {
+        final KombinerSlot slot = this.slot();
+
+        if (slot.missing)
+            throw new KfgMissingKeyException(this.origin.name(), this.key, this.type);
+
+        return slot;
+    }
+
+    /**
+     * Same as {@link #slot()} but fails on missing keys and null values, just
+     * as {@link #vn()}.
+     */
+    @NotNull
+    final KombinerSlot slotNonNull() {
+        final KombinerSlot slot = this.slot();
+
+        if (slot.value == null)
+            throw new KfgMissingKeyException(this.origin.name(), this.key, this.type);
+
+        return slot;
+    }
+
     @Override
     @Nullable
+    @SuppressWarnings("unchecked")
     public U v() {
-        return this.origin.getCachedValueOrIssueIt(key, this.type);
+        return (U) this.slotPresent().value;
+    }
+
+    /**
+     * Missing keys are cached by the kombiner, so this does not go through
+     * an exception as the default implementation does.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public U v(@Nullable final U defaultValue) {
+        final KombinerSlot slot = this.slot();
+        return slot.missing ? defaultValue : (U) slot.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public U vn(@NotNull final U defaultValue) {
+        Objects.requireNonNull(defaultValue,
+            "defaultValue for vn() can not be null, you may use the v() variant instead");
+
+        final KombinerSlot slot = this.slot();
+        return slot.value == null ? defaultValue : (U) slot.value;
     }
 
     @NotNull
@@ -72,7 +154,16 @@ final class KombinerK<U> implements K<U> {
     @Override
     @Contract(pure = true)
     public boolean exists() {
-        return this.origin.has(this.key, this.type);
+        return this.origin.has(this.key, this.keyed);
+    }
+
+    @Override
+    @NotNull
+    public Lookup lookup() {
+        final KombinerSlot slot = this.slot();
+        if (slot.missing)
+            return Lookup.MISSING;
+        return slot.value == null ? Lookup.NULL : Lookup.FOUND;
     }
 
     @Override
@@ -135,4 +226,89 @@ final class KombinerK<U> implements K<U> {
         return result;
     }
 
+
+    @ThreadSafe
+    static final class OfBool extends KombinerK<Boolean> implements BoolK {
+
+        OfBool(@NotNull final Kombiner origin,
+               @NotNull final String key) {
+            super(origin, key, Kind.BOOL);
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            return this.slotNonNull().bits != 0;
+        }
+
+        @Override
+        public boolean getAsBoolean(final boolean defaultValue) {
+            final KombinerSlot slot = this.slot();
+            return slot.value == null ? defaultValue : slot.bits != 0;
+        }
+
+    }
+
+    @ThreadSafe
+    static final class OfInt extends KombinerK<Integer> implements IntK {
+
+        OfInt(@NotNull final Kombiner origin,
+              @NotNull final String key) {
+            super(origin, key, Kind.INT);
+        }
+
+        @Override
+        public int getAsInt() {
+            return (int) this.slotNonNull().bits;
+        }
+
+        @Override
+        public int getAsInt(final int defaultValue) {
+            final KombinerSlot slot = this.slot();
+            return slot.value == null ? defaultValue : (int) slot.bits;
+        }
+
+    }
+
+    @ThreadSafe
+    static final class OfLong extends KombinerK<Long> implements LongK {
+
+        OfLong(@NotNull final Kombiner origin,
+               @NotNull final String key) {
+            super(origin, key, Kind.LONG);
+        }
+
+        @Override
+        public long getAsLong() {
+            return this.slotNonNull().bits;
+        }
+
+        @Override
+        public long getAsLong(final long defaultValue) {
+            final KombinerSlot slot = this.slot();
+            return slot.value == null ? defaultValue : slot.bits;
+        }
+
+    }
+
+    @ThreadSafe
+    static final class OfDouble extends KombinerK<Double> implements DoubleK {
+
+        OfDouble(@NotNull final Kombiner origin,
+                 @NotNull final String key) {
+            super(origin, key, Kind.DOUBLE);
+        }
+
+        @Override
+        public double getAsDouble() {
+            return Double.longBitsToDouble(this.slotNonNull().bits);
+        }
+
+        @Override
+        public double getAsDouble(final double defaultValue) {
+            final KombinerSlot slot = this.slot();
+            return slot.value == null ? defaultValue : Double.longBitsToDouble(slot.bits);
+        }
+
+    }
+
 }
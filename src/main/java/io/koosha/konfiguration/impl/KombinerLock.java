@@ -78,7 +78,7 @@ final class KombinerLock {
 
         Lock lock = null;
         try {
-            lock = this.LOCK.readLock();
+            lock = this.LOCK.writeLock();
             acquire(lock);
             return func.get();
         }
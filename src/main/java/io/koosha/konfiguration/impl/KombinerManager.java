@@ -1,15 +1,18 @@
 package io.koosha.konfiguration.impl;
 
 import io.koosha.konfiguration.Handle;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KeyObserver;
 import io.koosha.konfiguration.KfgAssertionException;
 import io.koosha.konfiguration.KfgIllegalStateException;
 import io.koosha.konfiguration.KonfigurationManager;
 import io.koosha.konfiguration.Source;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import net.jcip.annotations.NotThreadSafe;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -21,6 +24,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @NotThreadSafe
 @ApiStatus.Internal
@@ -29,6 +35,16 @@ final class KombinerManager implements KonfigurationManager {
     @NotNull
     private final Kombiner origin;
 
+    /**
+     * Outcome of the last {@link #hasUpdate()} for each source, on the
+     * snapshot {@link #polledOn}, for {@link #updateNowPolled(Executor)}.
+     */
+    @NotNull
+    private Map<Handle, Boolean> polled = Collections.emptyMap();
+
+    @Nullable
+    private KombinerSnapshot polledOn;
+
     KombinerManager(@NotNull final Kombiner kombiner) {
         Objects.requireNonNull(kombiner, "kombiner");
         this.origin = kombiner;
@@ -37,86 +53,198 @@ final class KombinerManager implements KonfigurationManager {
     @NotNull
     @Override
     public Map<String, Collection<Runnable>> update() {
+        return this.update(Runnable::run);
+    }
+
+    @NotNull
+    @Override
+    public Map<String, Collection<Runnable>> update(@NotNull final Executor refresher) {
+        Objects.requireNonNull(refresher, "refresher");
+        return this.update(refresher, false);
+    }
+
+    @Override
+    public boolean updateNowPolled(@NotNull final Executor executor) {
+        Objects.requireNonNull(executor, "executor");
+
+        boolean any = false;
+        for (final Map.Entry<String, Collection<Runnable>> entry : this.update(Runnable::run, true).entrySet()) {
+            entry.getValue().forEach(executor::execute);
+            any = true;
+        }
+        return any;
+    }
+
+    /**
+     * @param trustPoll take the outcome of the last {@link #hasUpdate()}, if
+     *                  it was on the current snapshot, instead of polling the
+     *                  sources again.
+     */
+    @NotNull
+    private Map<String, Collection<Runnable>> update(@NotNull final Executor refresher,
+                                                     final boolean trustPoll) {
         if (!this.origin.updatable)
             throw new KfgAssertionException(this.origin.name(), null, null, null, "update is not supported");
 
-        final LinkedHashMap<Handle, Source> newSources = new LinkedHashMap<>();
         final Map<Kind<?>, Object> newCache = new HashMap<>();
         final Set<Kind<?>> updatedKeys = new HashSet<>();
         final Map<String, Collection<Runnable>> toBeNotifiedListeners = new HashMap<>();
 
-        final boolean noneMatched = this.origin.r(() -> {
-            if (this.origin.sources
-                .sources()
-                .stream()
-                .noneMatch(Source::hasUpdate))
-                return true;
+        final KombinerSnapshot current = this.origin.snapshot();
+        final Map<Handle, Boolean> polled = trustPoll && this.polledOn == current
+            ? this.polled
+            : Collections.emptyMap();
+        this.polled = Collections.emptyMap();
+        this.polledOn = null;
+
+        final KombinerSources nextSources = this.origin.r(() -> {
+            final LinkedHashMap<Handle, Source> oldSources = current.sources.sourcesCopy();
+
+            final LinkedHashMap<Handle, CompletableFuture<Source>> refreshing = new LinkedHashMap<>();
+            oldSources.forEach((handle, konfiguration) -> {
+                final Boolean hasUpdate = polled.get(handle);
+                refreshing.put(handle, CompletableFuture.supplyAsync(
+                    () -> (hasUpdate != null ? hasUpdate : konfiguration.hasUpdate())
+                        ? konfiguration.updatedCopy()
+                        : konfiguration,
+                    refresher));
+            });
 
-            this.origin.sources.sourcesCopy().forEach((handle, konfiguration) ->
-                newSources.put(handle, konfiguration.updatedCopy()));
+            // Merged in order of precedence, regardless of which finished first.
+            final LinkedHashMap<Handle, Source> newSources = new LinkedHashMap<>();
+            boolean anyUpdated = false;
+            for (final Map.Entry<Handle, CompletableFuture<Source>> entry : refreshing.entrySet()) {
+                final Source refreshed = join(entry.getValue());
+                newSources.put(entry.getKey(), refreshed);
+                anyUpdated |= refreshed != oldSources.get(entry.getKey());
+            }
+            if (!anyUpdated)
+                return null;
 
-            newCache.putAll(this.origin.cacheCopy());
+            final KombinerSources sources = new KombinerSources(newSources);
+            final Set<String> changed = changedKeys(oldSources, newSources);
+
+            newCache.putAll(current.cacheCopy());
 
             this.origin.issuedKeys.forEach(q -> {
                 final String key = q.key().orElseThrow(() ->
                     new KfgIllegalStateException(origin.name(), "key passed through kombiner is not set"));
+                if (changed != null && !changed.contains(key))
+                    return;
 
-                final Optional<?> oldValue = this.origin.getCachedValue(key, q);
-
-                final Optional<Source> newValue = newSources
-                    .values()
-                    .stream()
-                    .filter(it -> it.has(key, q))
-                    .findFirst();
+                final Optional<?> oldValue = this.origin.getCachedValue(current, key, q);
+                final KeyPath path = KeyPath.of(key);
 
-                final Object newValueGet = newValue.map(source -> source.custom(key, q).v())
-                                                   .orElse(null);
+                final K<?> newValue = sources.resolve(path, q);
+                final Object newValueGet = newValue.exists() ? newValue.v() : null;
 
                 //noinspection ConstantConditions
-                if (oldValue.isPresent() != newValue.isPresent()
-                    || newValue.isPresent() && oldValue.isPresent() && !Objects.equals(newValueGet, oldValue.get()))
+                if (oldValue.isPresent() != newValue.exists()
+                    || newValue.exists() && oldValue.isPresent() && !Objects.equals(newValueGet, oldValue.get()))
                     updatedKeys.add(q);
 
-                if (newValue.isPresent())
+                if (newValue.exists())
                     newCache.put(q, newValueGet);
+                else
+                    newCache.remove(q);
             });
 
             toBeNotifiedListeners.computeIfAbsent(KeyObserver.LISTEN_TO_ALL, q_ -> new ArrayList<>())
                                  .addAll(this.origin.observers.getKeyListeners(KeyObserver.LISTEN_TO_ALL));
 
+            final Set<String> updatedStrKeys = new HashSet<>();
             for (final Kind<?> kind : updatedKeys) {
                 final String strKey = kind.key().orElseThrow(
                     () -> new KfgIllegalStateException(origin.name(), ""));
-                toBeNotifiedListeners.computeIfAbsent(strKey, q_ -> new ArrayList<>())
-                                     .addAll(this.origin.observers.getKeyListeners(strKey));
+                if (updatedStrKeys.add(strKey))
+                    toBeNotifiedListeners.computeIfAbsent(strKey, q_ -> new ArrayList<>())
+                                         .addAll(this.origin.observers.getKeyListeners(strKey));
             }
 
-            return false;
+            // Once per update, along with those listening to all.
+            toBeNotifiedListeners.get(KeyObserver.LISTEN_TO_ALL)
+                                 .addAll(this.origin.observers.getBatchListeners(
+                                     updatedStrKeys, current.generation, current.generation + 1));
+
+            return sources;
         });
 
-        if (noneMatched)
+        if (nextSources == null)
             return Collections.emptyMap();
 
+        final KombinerSnapshot next = new KombinerSnapshot(current.generation + 1, nextSources, newCache);
         this.origin.w(() -> {
-            this.origin.sources.replaceSources(newSources);
-            this.origin.replaceCache(newCache);
+            this.origin.replaceSnapshot(next);
             return null;
         });
 
         return toBeNotifiedListeners;
     }
 
+    @NotNull
+    private static Source join(@NotNull final CompletableFuture<Source> refreshing) {
+        try {
+            return refreshing.join();
+        }
+        catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Keys changed in any of the sources, see {@link Source#changedKeys(Source)}.
+     *
+     * @return changed keys, or null if any of the sources can not tell.
+     */
+    @Nullable
+    private static Set<String> changedKeys(@NotNull final Map<Handle, Source> oldSources,
+                                           @NotNull final Map<Handle, Source> newSources) {
+        final Set<String> changed = new HashSet<>();
+        for (final Map.Entry<Handle, Source> entry : newSources.entrySet()) {
+            final Source previous = oldSources.get(entry.getKey());
+            if (previous == entry.getValue())
+                continue;
+            final Set<String> changedInSource = entry.getValue().changedKeys(previous);
+            if (changedInSource == null)
+                return null;
+            changed.addAll(changedInSource);
+        }
+        return changed;
+    }
+
     @Override
     public boolean hasUpdate() {
         if (!this.origin.updatable)
             return false;
 
-        return this
-            .origin
-            .sources
-            .sources()
-            .stream()
-            .anyMatch(Source::hasUpdate);
+        // Every source is polled, so that all of their pendingVersion()s are
+        // fresh, not only up to the first one having an update.
+        final KombinerSnapshot current = this.origin.snapshot();
+        final Map<Handle, Boolean> polled = new HashMap<>();
+        boolean any = false;
+        for (final Map.Entry<Handle, Source> entry : current.sources.sourcesCopy().entrySet()) {
+            final boolean hasUpdate = entry.getValue().hasUpdate();
+            polled.put(entry.getKey(), hasUpdate);
+            any |= hasUpdate;
+        }
+        this.polled = polled;
+        this.polledOn = current;
+        return any;
+    }
+
+    @Override
+    public long pendingVersion() {
+        if (!this.origin.updatable)
+            return 0;
+
+        long stamp = 1;
+        for (final Source source : this.origin.snapshot().sources.sources())
+            stamp = 31 * stamp + source.pendingVersion();
+        return stamp;
     }
 
 }
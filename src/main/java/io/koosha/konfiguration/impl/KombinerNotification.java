@@ -0,0 +1,128 @@
+package io.koosha.konfiguration.impl;
+
+import io.koosha.konfiguration.BatchKeyObserver;
+import io.koosha.konfiguration.KeyObserver;
+import io.koosha.konfiguration.KonfigurationDispatcher;
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Notifications returned by {@link KombinerManager#update()}, telling
+ * {@link KonfigurationDispatcher} which observer they notify.
+ *
+ * <p>The observer is the listener itself, not the handle of its registration,
+ * so that a listener registered on several keys has a single lane.
+ */
+@ThreadSafe
+@Immutable
+@ApiStatus.Internal
+abstract class KombinerNotification implements KonfigurationDispatcher.Notification {
+
+    @NotNull
+    private final Object observer;
+
+    private KombinerNotification(@NotNull final Object observer) {
+        Objects.requireNonNull(observer, "observer");
+        this.observer = observer;
+    }
+
+    @NotNull
+    @Override
+    public final Object observer() {
+        return this.observer;
+    }
+
+
+    /**
+     * Change of a key, superseded by a later change of the same key.
+     */
+    static final class Key extends KombinerNotification {
+
+        @NotNull
+        private final KeyObserver listener;
+
+        @NotNull
+        private final String key;
+
+        Key(@NotNull final KeyObserver listener,
+            @NotNull final String key) {
+            super(listener);
+            Objects.requireNonNull(key, "key");
+            this.listener = listener;
+            this.key = key;
+        }
+
+        @NotNull
+        @Override
+        public Object slot() {
+            return this.key;
+        }
+
+        @Override
+        public void run() {
+            this.listener.accept(this.key);
+        }
+
+    }
+
+    /**
+     * Change of a batch of keys, merged with an older batch not run yet.
+     */
+    static final class Batch extends KombinerNotification {
+
+        @NotNull
+        private final BatchKeyObserver listener;
+
+        @NotNull
+        private final Set<String> keys;
+
+        private final long oldVersion;
+
+        private final long newVersion;
+
+        Batch(@NotNull final BatchKeyObserver listener,
+              @NotNull final Set<String> keys,
+              final long oldVersion,
+              final long newVersion) {
+            super(listener);
+            Objects.requireNonNull(keys, "keys");
+            this.listener = listener;
+            this.keys = Collections.unmodifiableSet(keys);
+            this.oldVersion = oldVersion;
+            this.newVersion = newVersion;
+        }
+
+        @NotNull
+        @Override
+        public Object slot() {
+            return Batch.class;
+        }
+
+        @NotNull
+        @Override
+        public KonfigurationDispatcher.Notification supersede(@NotNull final KonfigurationDispatcher.Notification older) {
+            Objects.requireNonNull(older, "older");
+            if (!(older instanceof Batch))
+                return this;
+
+            final Batch o = (Batch) older;
+            final Set<String> keys = new HashSet<>(o.keys);
+            keys.addAll(this.keys);
+            return new Batch(this.listener, keys, o.oldVersion, this.newVersion);
+        }
+
+        @Override
+        public void run() {
+            this.listener.accept(this.keys, this.oldVersion, this.newVersion);
+        }
+
+    }
+
+}
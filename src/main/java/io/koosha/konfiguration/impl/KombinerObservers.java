@@ -1,5 +1,6 @@
 package io.koosha.konfiguration.impl;
 
+import io.koosha.konfiguration.BatchKeyObserver;
 import io.koosha.konfiguration.Handle;
 import io.koosha.konfiguration.KeyObserver;
 import net.jcip.annotations.NotThreadSafe;
@@ -9,19 +10,35 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+import static java.util.Collections.singleton;
+
+/**
+ * Registered observers of a {@link Kombiner}, indexed by the keys they
+ * observe, so that finding the observers of a key does not scan all of them.
+ */
 @NotThreadSafe
 @ApiStatus.Internal
 final class KombinerObservers {
 
     private final Kombiner origin;
-    private final LinkedHashMap<Handle, Observer> observers = new LinkedHashMap<>();
+    private final HashMap<Handle, Observer<?>> observers = new HashMap<>();
+
+    /**
+     * Observers of each key, in order of registration.
+     */
+    private final HashMap<String, LinkedHashSet<Observer<?>>> byKey = new HashMap<>();
 
     KombinerObservers(@NotNull final Kombiner origin) {
         Objects.requireNonNull(origin, "origin");
@@ -34,8 +51,8 @@ final class KombinerObservers {
         Objects.requireNonNull(observer, "observer");
         Objects.requireNonNull(key, "key");
 
-        final Observer o = new Observer(new WeakReference<>(observer), key);
-        this.origin.w(() -> this.observers.put(o.handle(), o));
+        final Observer<?> o = new Observer<>(new WeakReference<>(observer), false, singleton(key));
+        this.origin.w(() -> this.add(o));
         return o.handle();
     }
 
@@ -45,14 +62,42 @@ final class KombinerObservers {
         Objects.requireNonNull(observer, "observer");
         Objects.requireNonNull(key, "key");
 
-        final Observer o = new Observer(observer, key);
-        this.origin.w(() -> this.observers.put(o.handle(), o));
+        final Observer<?> o = new Observer<>(observer, false, singleton(key));
+        this.origin.w(() -> this.add(o));
+        return o.handle();
+    }
+
+    @NotNull
+    Handle registerSoft(@NotNull final BatchKeyObserver observer,
+                        @NotNull final Collection<String> keys) {
+        Objects.requireNonNull(observer, "observer");
+        Objects.requireNonNull(keys, "keys");
+
+        final Observer<?> o = new Observer<>(new WeakReference<>(observer), true, keys);
+        this.origin.w(() -> this.add(o));
+        return o.handle();
+    }
+
+    @NotNull
+    Handle registerHard(@NotNull final BatchKeyObserver observer,
+                        @NotNull final Collection<String> keys) {
+        Objects.requireNonNull(observer, "observer");
+        Objects.requireNonNull(keys, "keys");
+
+        final Observer<?> o = new Observer<>(observer, true, keys);
+        this.origin.w(() -> this.add(o));
         return o.handle();
     }
 
     void remove(@NotNull final Handle handle) {
         Objects.requireNonNull(handle, "handle");
-        this.origin.w(() -> this.observers.remove(handle));
+        this.origin.w(() -> {
+            final Observer<?> o = this.observers.remove(handle);
+            if (o != null)
+                for (final String key : o.interestedKeys)
+                    this.unindex(key, o);
+            return null;
+        });
     }
 
     void deregister(@NotNull final Handle handle,
@@ -61,9 +106,12 @@ final class KombinerObservers {
         Objects.requireNonNull(key, "key");
 
         this.origin.w(() -> {
-            final Observer o = this.observers.get(handle);
-            if (o != null)
-                o.remove(key);
+            final Observer<?> o = this.observers.get(handle);
+            if (o != null && o.remove(key)) {
+                this.unindex(key, o);
+                if (o.interestedKeys.isEmpty())
+                    this.observers.remove(handle);
+            }
             return null;
         });
     }
@@ -71,50 +119,117 @@ final class KombinerObservers {
     @NotNull
     Collection<Runnable> getKeyListeners(@NotNull final String key) {
         Objects.requireNonNull(key, "key");
-        return this.observers
-            .values()
-            .stream()
-            .filter(it -> it.has(key))
-            .map(Observer::listener)
-            .filter(Objects::nonNull)
-            .map(it -> (Runnable) () -> it.accept(key))
-            .collect(Collectors.toList());
+
+        final LinkedHashSet<Observer<?>> interested = this.byKey.get(key);
+        if (interested == null)
+            return Collections.emptyList();
+
+        final List<Runnable> listeners = new ArrayList<>(interested.size());
+        for (final Observer<?> o : interested) {
+            final Object listener = o.listener();
+            if (!o.batch && listener != null)
+                listeners.add(new KombinerNotification.Key((KeyObserver) listener, key));
+        }
+        return listeners;
+    }
+
+    /**
+     * A single call to each batch observer of any of the changed keys.
+     *
+     * @param changedKeys keys changed by the update.
+     * @param oldVersion  version before the update.
+     * @param newVersion  version after the update.
+     * @return listeners to notify.
+     */
+    @NotNull
+    Collection<Runnable> getBatchListeners(@NotNull final Set<String> changedKeys,
+                                           final long oldVersion,
+                                           final long newVersion) {
+        Objects.requireNonNull(changedKeys, "changedKeys");
+        if (changedKeys.isEmpty())
+            return Collections.emptyList();
+
+        final Map<Observer<?>, Set<String>> matched = new LinkedHashMap<>();
+        for (final String key : changedKeys) {
+            final LinkedHashSet<Observer<?>> interested = this.byKey.get(key);
+            if (interested != null)
+                for (final Observer<?> o : interested)
+                    if (o.batch)
+                        matched.computeIfAbsent(o, o_ -> new HashSet<>()).add(key);
+        }
+        final LinkedHashSet<Observer<?>> interestedInAll = this.byKey.get(KeyObserver.LISTEN_TO_ALL);
+        if (interestedInAll != null)
+            for (final Observer<?> o : interestedInAll)
+                if (o.batch)
+                    matched.put(o, changedKeys);
+
+        final List<Runnable> listeners = new ArrayList<>(matched.size());
+        matched.forEach((o, keys) -> {
+            final Object listener = o.listener();
+            if (listener != null)
+                listeners.add(new KombinerNotification.Batch(
+                    (BatchKeyObserver) listener, keys, oldVersion, newVersion));
+        });
+        return listeners;
+    }
+
+    private Observer<?> add(@NotNull final Observer<?> o) {
+        this.observers.put(o.handle(), o);
+        for (final String key : o.interestedKeys)
+            this.byKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(o);
+        return o;
+    }
+
+    private void unindex(@NotNull final String key,
+                         @NotNull final Observer<?> o) {
+        final LinkedHashSet<Observer<?>> interested = this.byKey.get(key);
+        if (interested != null && interested.remove(o) && interested.isEmpty())
+            this.byKey.remove(key);
     }
 
+    /**
+     * @param <T> type of listener, {@link KeyObserver} or {@link BatchKeyObserver}.
+     */
     @NotThreadSafe
-    private static final class Observer {
+    private static final class Observer<T> {
 
         private final Handle handle = new HandleImpl();
 
         @Nullable
-        private final WeakReference<KeyObserver> soft;
+        private final WeakReference<T> soft;
 
         @Nullable
-        private final KeyObserver hard;
+        private final T hard;
+
+        private final boolean batch;
 
         private final Set<String> interestedKeys = new HashSet<>();
 
-        Observer(@NotNull final WeakReference<KeyObserver> keyObserver,
-                 @NotNull final String... keys) {
+        Observer(@NotNull final WeakReference<T> keyObserver,
+                 final boolean batch,
+                 @NotNull final Collection<String> keys) {
             Objects.requireNonNull(keyObserver, "keyObserver");
             this.soft = keyObserver;
             this.hard = null;
+            this.batch = batch;
             for (final String key : keys)
                 this.add(key);
         }
 
-        Observer(@NotNull final KeyObserver keyObserver,
-                 @NotNull final String... keys) {
+        Observer(@NotNull final T keyObserver,
+                 final boolean batch,
+                 @NotNull final Collection<String> keys) {
             Objects.requireNonNull(keyObserver, "keyObserver");
             this.soft = null;
             this.hard = keyObserver;
+            this.batch = batch;
             for (final String key : keys)
                 this.add(key);
         }
 
         @Nullable
         @Contract(pure = true)
-        KeyObserver listener() {
+        T listener() {
             return this.soft != null
                 ? this.soft.get()
                 : this.hard;
@@ -125,14 +240,9 @@ final class KombinerObservers {
             this.interestedKeys.add(key);
         }
 
-        void remove(@NotNull final String key) {
-            Objects.requireNonNull(key, "key");
-            this.interestedKeys.remove(key);
-        }
-
-        boolean has(@NotNull final String key) {
+        boolean remove(@NotNull final String key) {
             Objects.requireNonNull(key, "key");
-            return this.interestedKeys.contains(key);
+            return this.interestedKeys.remove(key);
         }
 
 
@@ -144,7 +254,7 @@ final class KombinerObservers {
         @Override
         public boolean equals(final Object o) {
             return o == this || o instanceof Observer
-                && Objects.equals(this.handle, ((Observer) o).handle);
+                && Objects.equals(this.handle, ((Observer<?>) o).handle);
         }
 
         @Override
@@ -0,0 +1,72 @@
+package io.koosha.konfiguration.impl;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A value issued by a {@link Kombiner}, stamped with the generation of the
+ * {@link KombinerSnapshot} it was issued from.
+ *
+ * <p>A key found in none of the sources is cached too, as a {@link #missing}
+ * slot, so that looking it up again does not scan the sources again.
+ *
+ * <p>Boolean and numeric values are also kept unboxed in {@link #bits}, so
+ * that primitive handles can read them without unboxing.
+ *
+ * <p>All fields are final, so a slot can be handed between threads without
+ * synchronization.
+ */
+@Immutable
+@ThreadSafe
+@ApiStatus.Internal
+final class KombinerSlot {
+
+    final long generation;
+
+    @Nullable
+    final Object value;
+
+    /**
+     * Raw bits of a double or float value, the value itself for other numbers,
+     * 1 or 0 for booleans, and 0 for anything else.
+     */
+    final long bits;
+
+    /**
+     * True if none of the sources had the key, {@link #value} is null then.
+     */
+    final boolean missing;
+
+    KombinerSlot(final long generation,
+                 @Nullable final Object value) {
+        this.generation = generation;
+        this.value = value;
+        this.bits = bits(value);
+        this.missing = false;
+    }
+
+    private KombinerSlot(final long generation) {
+        this.generation = generation;
+        this.value = null;
+        this.bits = 0;
+        this.missing = true;
+    }
+
+    static KombinerSlot missing(final long generation) {
+        return new KombinerSlot(generation);
+    }
+
+
+    private static long bits(@Nullable final Object value) {
+        if (value instanceof Double || value instanceof Float)
+            return Double.doubleToRawLongBits(((Number) value).doubleValue());
+        if (value instanceof Number)
+            return ((Number) value).longValue();
+        if (value instanceof Boolean)
+            return (Boolean) value ? 1 : 0;
+        return 0;
+    }
+
+}
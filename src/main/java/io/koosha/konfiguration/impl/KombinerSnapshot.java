@@ -0,0 +1,146 @@
+package io.koosha.konfiguration.impl;
+
+import io.koosha.konfiguration.type.Kind;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * State of a {@link Kombiner} at a point in time: the kombined sources and
+ * the values issued from them.
+ *
+ * <p>The sources never change. The cache only ever grows, and every value put
+ * into it is derived from the very same sources, so a snapshot can be read
+ * from any thread without locking. Updates never touch a published snapshot,
+ * they build the next one and swap it in.
+ *
+ * <p>Missing values are issued per key: callers missing different keys issue
+ * them in parallel, and only callers of the same key wait for each other.
+ * Keys absent from all sources are cached as {@link KombinerSlot#missing}
+ * slots, they are dropped along with the snapshot on the next update.
+ */
+@ThreadSafe
+@ApiStatus.Internal
+final class KombinerSnapshot {
+
+    /**
+     * Bumped on each update, slots issued from this snapshot carry it.
+     */
+    final long generation;
+
+    @NotNull
+    final KombinerSources sources;
+
+    private final Map<Kind<?>, KombinerSlot> cache;
+
+    private final ConcurrentHashMap<Kind<?>, CompletableFuture<KombinerSlot>> issuing = new ConcurrentHashMap<>();
+
+    KombinerSnapshot(final long generation,
+                     @NotNull final KombinerSources sources,
+                     @NotNull final Map<Kind<?>, Object> cache) {
+        Objects.requireNonNull(sources, "sources");
+        Objects.requireNonNull(cache, "cache");
+
+        this.generation = generation;
+        this.sources = sources;
+        this.cache = new ConcurrentHashMap<>(cache.size());
+        cache.forEach(this::put);
+    }
+
+    /**
+     * Cached slot of key.
+     *
+     * @param key the key (with it's {@link Kind#key()} set) to look up.
+     * @return the slot holding value of key, or null if key is not cached.
+     */
+    @Nullable
+    @Contract(pure = true)
+    KombinerSlot slot(@NotNull final Kind<?> key) {
+        return this.cache.get(key);
+    }
+
+    @NotNull
+    @Contract(mutates = "this")
+    KombinerSlot put(@NotNull final Kind<?> key,
+                     @Nullable final Object value) {
+        Objects.requireNonNull(key, "key");
+        final KombinerSlot slot = new KombinerSlot(this.generation, value);
+        this.cache.put(key, slot);
+        return slot;
+    }
+
+    /**
+     * Get the cached slot of key, or issue and cache it if missing.
+     *
+     * <p>Only one caller issues a given key, concurrent callers of the same
+     * key wait for its result (or its exception).
+     *
+     * @param key    the key (with it's {@link Kind#key()} set) to look up.
+     * @param issuer computes the slot of key from {@link #sources}.
+     * @return slot holding value of key, possibly a missing slot.
+     */
+    @NotNull
+    KombinerSlot issue(@NotNull final Kind<?> key,
+                       @NotNull final Function<Kind<?>, KombinerSlot> issuer) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(issuer, "issuer");
+
+        final KombinerSlot cached = this.cache.get(key);
+        if (cached != null)
+            return cached;
+
+        final CompletableFuture<KombinerSlot> mine = new CompletableFuture<>();
+        final CompletableFuture<KombinerSlot> other = this.issuing.putIfAbsent(key, mine);
+        if (other != null)
+            try {
+                return other.join();
+            }
+            catch (final CompletionException e) {
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error)
+                    throw (Error) e.getCause();
+                throw e;
+            }
+
+        try {
+            // Another caller might have finished issuing before we got here.
+            KombinerSlot slot = this.cache.get(key);
+            if (slot == null) {
+                slot = issuer.apply(key);
+                this.cache.put(key, slot);
+            }
+            mine.complete(slot);
+            return slot;
+        }
+        catch (final Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        }
+        finally {
+            this.issuing.remove(key, mine);
+        }
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    Map<Kind<?>, Object> cacheCopy() {
+        final Map<Kind<?>, Object> copy = new HashMap<>(this.cache.size());
+        this.cache.forEach((k, v) -> {
+            if (!v.missing)
+                copy.put(k, v.value);
+        });
+        return copy;
+    }
+
+}
@@ -1,34 +1,141 @@
 package io.koosha.konfiguration.impl;
 
+import io.koosha.konfiguration.DummyV;
 import io.koosha.konfiguration.Handle;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.Source;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
-import net.jcip.annotations.NotThreadSafe;
+import net.jcip.annotations.ThreadSafe;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-@NotThreadSafe
+/**
+ * Sources of a {@link Kombiner}, in order of precedence.
+ *
+ * <p>Sources are indexed by key, using {@link Source#keys()}, so that a key is
+ * only looked up in the sources having it (and the ones not able to tell),
+ * instead of in each and every source. The index is built lazily, a key at a
+ * time as it's looked up, so that a new snapshot made on each update does
+ * not pay for indexing keys no one reads.
+ */
+@ThreadSafe
 @ApiStatus.Internal
 final class KombinerSources {
 
-    private final Map<Handle, Source> sources = new LinkedHashMap<>();
+    private static final Source[] NONE = new Source[0];
 
+    private final Map<Handle, Source> sources;
 
-    boolean has(@NotNull final String key,
+    /**
+     * Sources in order of precedence.
+     */
+    private final Source[] ordered;
+
+    /**
+     * Keys of each of {@link #ordered}, null for the sources not able to
+     * enumerate their keys.
+     */
+    private final Set<?>[] keysOf;
+
+    /**
+     * Sources not able to enumerate their keys, the candidates for keys no
+     * source has.
+     */
+    private final Source[] unindexed;
+
+    /**
+     * Sources that might have the key, in order of precedence, for the keys
+     * looked up so far which some source has.
+     */
+    private final ConcurrentHashMap<String, Source[]> index = new ConcurrentHashMap<>();
+
+    KombinerSources(@NotNull final LinkedHashMap<Handle, Source> sources) {
+        Objects.requireNonNull(sources, "sources");
+        this.sources = Collections.unmodifiableMap(new LinkedHashMap<>(sources));
+
+        this.ordered = this.sources.values().toArray(NONE);
+        this.keysOf = new Set<?>[this.ordered.length];
+        final List<Source> unindexed = new ArrayList<>();
+        for (int i = 0; i < this.ordered.length; i++) {
+            this.keysOf[i] = this.ordered[i].keys();
+            if (this.keysOf[i] == null)
+                unindexed.add(this.ordered[i]);
+        }
+        this.unindexed = unindexed.toArray(NONE);
+    }
+
+
+    /**
+     * Sources that might have key, in order of precedence.
+     */
+    @NotNull
+    @Contract(pure = true)
+    private Source[] candidates(@NotNull final KeyPath key) {
+        final String k = key.key();
+        final Source[] indexed = this.index.get(k);
+        if (indexed != null)
+            return indexed;
+
+        final List<Source> candidates = new ArrayList<>(this.ordered.length);
+        boolean anyHas = false;
+        for (int i = 0; i < this.ordered.length; i++)
+            if (this.keysOf[i] == null)
+                candidates.add(this.ordered[i]);
+            else if (this.keysOf[i].contains(k)) {
+                candidates.add(this.ordered[i]);
+                anyHas = true;
+            }
+
+        // Keys no source has are not kept, there is no end to them.
+        if (!anyHas)
+            return this.unindexed;
+        final Source[] computed = candidates.toArray(NONE);
+        final Source[] raced = this.index.putIfAbsent(k, computed);
+        return raced == null ? computed : raced;
+    }
+
+    boolean has(@NotNull final KeyPath key,
                 @NotNull final Kind<?> type) {
         Objects.requireNonNull(key, "key");
         Objects.requireNonNull(type, "type");
 
-        return this.sources
-            .values()
-            .stream()
-            .anyMatch(k -> k.has(key, type));
+        for (final Source source : this.candidates(key))
+            if (source.lookup(key, type).exists())
+                return true;
+        return false;
+    }
+
+    /**
+     * Value of key, from the first source that has it as type.
+     *
+     * @param key  the key to read.
+     * @param type type of the value.
+     * @return the value, or a missing value if no source has key as type.
+     */
+    @NotNull
+    K<?> resolve(@NotNull final KeyPath key,
+                 @NotNull final Kind<?> type) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(type, "type");
+
+        for (final Source source : this.candidates(key)) {
+            final K<?> resolved = source.resolve(key, type);
+            if (resolved.exists())
+                return resolved;
+        }
+        return DummyV.missing(type, key.key());
     }
 
     @Contract(pure = true)
@@ -37,13 +144,6 @@ final class KombinerSources {
         return sources.values();
     }
 
-    @Contract(mutates = "this")
-    void replaceSources(@NotNull final LinkedHashMap<Handle, Source> s) {
-        Objects.requireNonNull(s, "origin");
-        this.sources.clear();
-        this.sources.putAll(s);
-    }
-
     @Contract(pure = true)
     @NotNull
     LinkedHashMap<Handle, Source> sourcesCopy() {
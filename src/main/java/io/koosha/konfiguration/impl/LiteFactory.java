@@ -28,7 +28,7 @@ public class LiteFactory implements LiteKonfigurationFactory {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(json, "json");
 
-        return jacksonJson(name, json, ExtJacksonSourceJsonHelper::mapper);
+        return jacksonJson(name, json, ExtJacksonSourceJsonHelper::shared);
     }
 
     @Override
@@ -50,7 +50,7 @@ public class LiteFactory implements LiteKonfigurationFactory {
         Objects.requireNonNull(name, "name");
         Objects.requireNonNull(yaml, "yaml");
 
-        return jacksonYaml(name, yaml, ExtJacksonSourceYamlHelper::mapper);
+        return jacksonYaml(name, yaml, ExtJacksonSourceYamlHelper::shared);
     }
 
     @Override
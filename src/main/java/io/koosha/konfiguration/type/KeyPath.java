@@ -0,0 +1,114 @@
+package io.koosha.konfiguration.type;
+
+import net.jcip.annotations.Immutable;
+import net.jcip.annotations.ThreadSafe;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A dotted konfig key, split into its parts once.
+ *
+ * <p>Instances obtained through {@link #of(String)} are interned, so looking
+ * up the same key over and over does not split it again. Splitting is the
+ * same as {@code key.split(Pattern.quote("."))}.
+ */
+@ThreadSafe
+@Immutable
+public final class KeyPath {
+
+    private static final Pattern DOT = Pattern.compile(Pattern.quote("."));
+
+    /**
+     * Keys are usually a fixed set, but nothing stops a caller from making
+     * them up on the fly, so the pool is bounded.
+     */
+    private static final int MAX_INTERNED = 1 << 16;
+
+    private static final ConcurrentHashMap<String, KeyPath> INTERNED = new ConcurrentHashMap<>();
+
+    @NotNull
+    private final String key;
+
+    @NotNull
+    private final String[] parts;
+
+    private KeyPath(@NotNull final String key) {
+        Objects.requireNonNull(key, "key");
+        this.key = key;
+        this.parts = DOT.split(key);
+    }
+
+
+    @NotNull
+    @Contract(pure = true)
+    public String key() {
+        return this.key;
+    }
+
+    @Contract(pure = true)
+    public int size() {
+        return this.parts.length;
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public String part(final int index) {
+        return this.parts[index];
+    }
+
+    @NotNull
+    @Contract(pure = true)
+    public String last() {
+        return this.parts[this.parts.length - 1];
+    }
+
+
+    @Contract(pure = true)
+    @Override
+    public String toString() {
+        return this.key;
+    }
+
+    @Contract(pure = true)
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || o instanceof KeyPath
+            && Objects.equals(this.key, ((KeyPath) o).key);
+    }
+
+    @Contract(pure = true)
+    @Override
+    public int hashCode() {
+        return this.key.hashCode();
+    }
+
+
+    // =========================================================================
+
+    /**
+     * Factory method.
+     *
+     * @param key the dotted key.
+     * @return parsed key, interned.
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static KeyPath of(@NotNull final String key) {
+        Objects.requireNonNull(key, "key");
+
+        final KeyPath interned = INTERNED.get(key);
+        if (interned != null)
+            return interned;
+
+        final KeyPath path = new KeyPath(key);
+        if (INTERNED.size() >= MAX_INTERNED)
+            return path;
+        final KeyPath raced = INTERNED.putIfAbsent(key, path);
+        return raced == null ? path : raced;
+    }
+
+}
@@ -225,6 +225,27 @@ public abstract class Kind<TYPE> implements Serializable {
         return this.isList() || this.isSet();
     }
 
+    /**
+     * If values of this kind are read by a dedicated getter of konfiguration
+     * (bool, char, string, numbers, list and set), rather than handed over to
+     * the source's deserializer as custom values.
+     *
+     * @return true if this is one of the builtin kinds.
+     */
+    @Contract(pure = true)
+    public final boolean isBuiltin() {
+        return this.isBool()
+            || this.isChar()
+            || this.isString()
+            || this.isByte()
+            || this.isShort()
+            || this.isInt()
+            || this.isLong()
+            || this.isFloat()
+            || this.isDouble()
+            || this.isCollection();
+    }
+
     @Contract(pure = true)
     public final boolean isList() {
         return List.class.isAssignableFrom(this.klass());
@@ -0,0 +1,193 @@
+package io.koosha.konfiguration;
+
+import org.jetbrains.annotations.NotNull;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test cases for {@link KonfigurationDispatcher}.
+ */
+@SuppressWarnings("RedundantThrows")
+public class KonfigurationDispatcherTest {
+
+    private static final class Note implements KonfigurationDispatcher.Notification {
+
+        private final String observer;
+        private final Object slot;
+        private final Runnable action;
+
+        Note(final String observer,
+             final Object slot,
+             final Runnable action) {
+            this.observer = observer;
+            this.slot = slot;
+            this.action = action;
+        }
+
+        @NotNull
+        @Override
+        public Object observer() {
+            return this.observer;
+        }
+
+        @NotNull
+        @Override
+        public Object slot() {
+            return this.slot;
+        }
+
+        @Override
+        public void run() {
+            this.action.run();
+        }
+
+    }
+
+    private ExecutorService pool;
+
+    @BeforeMethod
+    public void setup() {
+        this.pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    public void testOrderedPerObserver() throws Exception {
+        final KonfigurationDispatcher dispatcher = new KonfigurationDispatcher(this.pool, 1024);
+        final List<Integer> o0 = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> o1 = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(200);
+
+        for (int i = 0; i < 100; i++) {
+            final int n = i;
+            dispatcher.execute(new Note("o0", n, () -> {
+                o0.add(n);
+                done.countDown();
+            }));
+            dispatcher.execute(new Note("o1", n, () -> {
+                o1.add(n);
+                done.countDown();
+            }));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(o0.get(i), Integer.valueOf(i));
+            assertEquals(o1.get(i), Integer.valueOf(i));
+        }
+    }
+
+    @Test
+    public void testSupersededAndBlockedWhenFull() throws Exception {
+        final KonfigurationDispatcher dispatcher = new KonfigurationDispatcher(this.pool, 2);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        dispatcher.execute(new Note("o", "blocker", () -> {
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch (final InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        dispatcher.execute(new Note("o", "a", () -> ran.add("a0")));
+        dispatcher.execute(new Note("o", "b", () -> ran.add("b0")));
+        // Superseding does not need room.
+        dispatcher.execute(new Note("o", "a", () -> ran.add("a1")));
+
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread sender = new Thread(() -> {
+            dispatcher.execute(new Note("o", "c", () -> ran.add("c0")));
+            dispatcher.execute(new Note("o", "d", done::countDown));
+        });
+        sender.start();
+        sender.join(100);
+        assertTrue(sender.isAlive(), "lane is full, sender must block");
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        sender.join(5_000);
+
+        // a1 superseded a0 and moved behind b0, nothing dropped.
+        assertEquals(ran, Arrays.asList("b0", "a1", "c0"));
+    }
+
+    @Test
+    public void testSupersedingMovesToTail() throws Exception {
+        final KonfigurationDispatcher dispatcher = new KonfigurationDispatcher(this.pool, 16);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(2);
+        final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        dispatcher.execute(new Note("o", "blocker", () -> {
+            started.countDown();
+            try {
+                release.await();
+            }
+            catch (final InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        dispatcher.execute(new Note("o", "a", () -> ran.add("A1")));
+        dispatcher.execute(new Note("o", "b", () -> {
+            ran.add("B1");
+            done.countDown();
+        }));
+        dispatcher.execute(new Note("o", "a", () -> {
+            ran.add("A2");
+            done.countDown();
+        }));
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(ran, Arrays.asList("B1", "A2"));
+    }
+
+    @Test
+    public void testSendingFromOwnLaneDoesNotBlock() throws Exception {
+        final KonfigurationDispatcher dispatcher = new KonfigurationDispatcher(this.pool, 1);
+        final CountDownLatch done = new CountDownLatch(3);
+
+        dispatcher.execute(new Note("o", 0, () -> {
+            dispatcher.execute(new Note("o", 1, done::countDown));
+            dispatcher.execute(new Note("o", 2, done::countDown));
+            done.countDown();
+        }));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testOtherRunnables() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        try (KonfigurationDispatcher dispatcher = new KonfigurationDispatcher()) {
+            dispatcher.execute(done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+package io.koosha.konfiguration;
+
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test cases for {@link KonfigurationScheduler}.
+ */
+@SuppressWarnings("RedundantThrows")
+public class KonfigurationSchedulerTest {
+
+    private static final class CountingManager implements KonfigurationManager {
+
+        private final AtomicInteger updates = new AtomicInteger();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        private volatile boolean fail;
+        private volatile CountDownLatch latch = new CountDownLatch(0);
+
+        @Override
+        public Map<String, Collection<Runnable>> update() {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                if (fail)
+                    throw new KfgSourceException("test", "failing source");
+                return Collections.emptyMap();
+            }
+            finally {
+                concurrent.decrementAndGet();
+                updates.incrementAndGet();
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public boolean hasUpdate() {
+            return true;
+        }
+
+    }
+
+    @Test
+    public void testSharedThread() throws Exception {
+        final CountingManager m0 = new CountingManager();
+        final CountingManager m1 = new CountingManager();
+        m0.latch = new CountDownLatch(3);
+        m1.latch = new CountDownLatch(3);
+
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            scheduler.schedule(m0, Duration.ofMillis(5));
+            scheduler.schedule(m1, Duration.ofMillis(5), Duration.ofMillis(5), Runnable::run, null);
+            assertTrue(m0.latch.await(5, TimeUnit.SECONDS));
+            assertTrue(m1.latch.await(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(m0.maxConcurrent.get(), 1);
+        assertEquals(m1.maxConcurrent.get(), 1);
+    }
+
+    @Test
+    public void testRefreshNowAndCancel() throws Exception {
+        final CountingManager m = new CountingManager();
+        m.latch = new CountDownLatch(1);
+
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            final KonfigurationScheduler.Scheduled s = scheduler.schedule(m, Duration.ofHours(1));
+            assertEquals(m.updates.get(), 0);
+            s.refreshNow();
+            assertTrue(m.latch.await(5, TimeUnit.SECONDS));
+            s.cancel();
+            s.refreshNow();
+            Thread.sleep(50);
+            assertEquals(m.updates.get(), 1);
+        }
+    }
+
+    @Test
+    public void testBacksOffOnSourceFailure() throws Exception {
+        final CountingManager m = new CountingManager();
+        m.fail = true;
+        final AtomicInteger errors = new AtomicInteger();
+
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            scheduler.schedule(m, Duration.ofMillis(20), Duration.ZERO, Runnable::run,
+                t -> {
+                    assertTrue(t instanceof KfgSourceException);
+                    errors.incrementAndGet();
+                });
+            Thread.sleep(500);
+        }
+
+        // Without back off it'd be ~25 runs: 20, 40, 80, 160, 320...
+        assertTrue(m.updates.get() >= 2, "updates: " + m.updates.get());
+        assertTrue(m.updates.get() <= 6, "updates: " + m.updates.get());
+        assertEquals(errors.get(), m.updates.get());
+    }
+
+    /**
+     * Has an update as long as the origin is written to, after the last
+     * update.
+     */
+    private static final class WrittenManager implements KonfigurationManager {
+
+        private final AtomicInteger updates = new AtomicInteger();
+
+        private volatile long written;
+        private volatile long updated;
+
+        void write() {
+            written++;
+        }
+
+        @Override
+        public Map<String, Collection<Runnable>> update() {
+            updated = written;
+            updates.incrementAndGet();
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public boolean hasUpdate() {
+            return written != updated;
+        }
+
+        @Override
+        public long pendingVersion() {
+            return written;
+        }
+
+    }
+
+    @Test
+    public void testCoalescesBurst() throws Exception {
+        final WrittenManager m = new WrittenManager();
+
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            scheduler.schedule(m, Duration.ofMillis(5), Duration.ZERO,
+                Duration.ofMillis(100), Duration.ofSeconds(30), Runnable::run, null);
+
+            for (int i = 0; i < 10; i++) {
+                m.write();
+                Thread.sleep(20);
+            }
+            assertEquals(m.updates.get(), 0);
+
+            final long deadline = System.currentTimeMillis() + 5_000;
+            while (m.updates.get() == 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            Thread.sleep(200);
+        }
+
+        assertEquals(m.updates.get(), 1);
+        assertFalse(m.hasUpdate());
+    }
+
+    @Test
+    public void testCoalescesBurstAcrossSources() throws Exception {
+        final AtomicLong v0 = new AtomicLong();
+        final AtomicLong v1 = new AtomicLong();
+        final KonfigurationFactory factory = KonfigurationFactory.getInstance();
+        final Konfiguration k = factory.kombine("kombined",
+            factory.map("s0", () -> Collections.singletonMap("a", "a" + v0.get()), v0::get),
+            factory.map("s1", () -> Collections.singletonMap("b", "b" + v1.get()), v1::get));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager manager = k.manager().get();
+        assertEquals(k.string("a").v(), "a0");
+        assertEquals(k.string("b").v(), "b0");
+
+        final AtomicInteger notified = new AtomicInteger();
+        k.register(key -> notified.incrementAndGet(), "a");
+
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            scheduler.schedule(manager, Duration.ofMillis(5), Duration.ZERO,
+                Duration.ofMillis(100), Duration.ofSeconds(30), Runnable::run, null);
+
+            // The first source changes once, then the second one keeps on
+            // changing: still one burst, as long as the second one is busy.
+            v0.incrementAndGet();
+            for (int i = 0; i < 10; i++) {
+                Thread.sleep(20);
+                v1.incrementAndGet();
+            }
+            assertEquals(notified.get(), 0);
+
+            final long deadline = System.currentTimeMillis() + 5_000;
+            while (notified.get() == 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            Thread.sleep(200);
+        }
+
+        assertEquals(notified.get(), 1);
+        assertEquals(k.string("a").v(), "a1");
+        assertEquals(k.string("b").v(), "b10");
+        assertFalse(manager.hasUpdate());
+    }
+
+    @Test
+    public void testCoalescingMaxDelay() throws Exception {
+        final WrittenManager m = new WrittenManager();
+
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            scheduler.schedule(m, Duration.ofMillis(5), Duration.ZERO,
+                Duration.ofMillis(100), Duration.ofMillis(200), Runnable::run, null);
+
+            // Never quiet for long enough, the max delay is hit instead.
+            final long deadline = System.currentTimeMillis() + 5_000;
+            while (m.updates.get() == 0 && System.currentTimeMillis() < deadline) {
+                m.write();
+                Thread.sleep(10);
+            }
+        }
+
+        assertEquals(m.updates.get(), 1);
+    }
+
+    @Test(expectedExceptions = KfgIllegalArgumentException.class)
+    public void testMaxDelayShorterThanQuiet() throws Exception {
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            scheduler.schedule(new CountingManager(), Duration.ofMillis(5), Duration.ZERO,
+                Duration.ofMillis(100), Duration.ofMillis(50), Runnable::run, null);
+        }
+    }
+
+    @Test(expectedExceptions = KfgIllegalArgumentException.class)
+    public void testNonPositiveInterval() throws Exception {
+        try (KonfigurationScheduler scheduler = new KonfigurationScheduler()) {
+            scheduler.schedule(new CountingManager(), Duration.ZERO);
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package io.koosha.konfiguration.impl;
+
+import io.koosha.konfiguration.Konfiguration;
+import io.koosha.konfiguration.KonfigurationFactory;
+import io.koosha.konfiguration.KonfigurationManager;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@SuppressWarnings("RedundantThrows")
+public class ExtFileWatchTest {
+
+    // Some watch services (e.g. macOS) poll every few seconds.
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    private Path dir;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        this.dir = Files.createTempDirectory("konfiguration");
+    }
+
+    @AfterMethod
+    public void cleanup() throws Exception {
+        try (Stream<Path> walk = Files.walk(this.dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private void write(final Path file,
+                       final String content) throws IOException {
+        final Path tmp = Files.createTempFile(this.dir, "tmp", ".tmp");
+        Files.write(tmp, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void awaitUpdate(final KonfigurationManager manager) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!manager.hasUpdate()) {
+            assertTrue(System.currentTimeMillis() < deadline, "no update seen");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testJsonAtomicRename() throws Exception {
+        final Path file = this.dir.resolve("konfig.json");
+        write(file, "{ \"a\": 1, \"b\": 2 }");
+
+        final Konfiguration k = KonfigurationFactory.getInstance().jacksonJson("json", file);
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager manager = k.manager().get();
+
+        assertEquals(k.int_("a").v(), Integer.valueOf(1));
+        assertFalse(manager.hasUpdate());
+
+        write(file, "{ \"a\": 3, \"b\": 2 }");
+        awaitUpdate(manager);
+        manager.updateNow();
+        assertEquals(k.int_("a").v(), Integer.valueOf(3));
+        assertFalse(manager.hasUpdate());
+    }
+
+    @Test
+    public void testLargeFile() throws Exception {
+        final char[] padding = new char[4 * 1024 * 1024];
+        Arrays.fill(padding, 'x');
+        final String pad = new String(padding);
+
+        final Path file = this.dir.resolve("large.json");
+        write(file, "{ \"a\": 1, \"pad\": \"" + pad + "\" }");
+
+        final KonfigurationFactory factory = KonfigurationFactory.getInstance();
+        final Konfiguration k = factory.kombine("gson", factory.gsonJson("gson", file));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager manager = k.manager().get();
+
+        assertEquals(k.int_("a").v(), Integer.valueOf(1));
+        assertEquals(k.string("pad").v().length(), padding.length);
+
+        // Written in place, shorter than before.
+        Files.write(file, "{ \"a\": 2, \"pad\": \"\" }".getBytes(StandardCharsets.UTF_8));
+        awaitUpdate(manager);
+        manager.updateNow();
+        assertEquals(k.int_("a").v(), Integer.valueOf(2));
+        assertEquals(k.string("pad").v(), "");
+    }
+
+    @Test
+    public void testSiblingEventDoesNotRead() throws Exception {
+        final Path file = this.dir.resolve("konfig.json");
+        write(file, "{ \"a\": 1 }");
+
+        final ExtFileWatch watch = new ExtFileWatch("watch", file);
+        watch.get();
+        final long version = watch.version();
+
+        write(this.dir.resolve("other.json"), "{ \"a\": 2 }");
+        Thread.sleep(200);
+        assertEquals(watch.version(), version);
+
+        write(file, "{ \"a\": 3 }");
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (watch.version() == version) {
+            assertTrue(System.currentTimeMillis() < deadline, "no change seen");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testUnchangedContent() throws Exception {
+        final Path file = this.dir.resolve("konfig.yaml");
+        write(file, "a: 1\n");
+
+        final Konfiguration k = KonfigurationFactory.getInstance().snakeYaml("yaml", file);
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager manager = k.manager().get();
+
+        // A sibling changing is an event in the same directory, but the
+        // content of the file is the same.
+        write(this.dir.resolve("other.yaml"), "a: 2\n");
+        Thread.sleep(200);
+        assertFalse(manager.hasUpdate());
+        assertEquals(k.int_("a").v(), Integer.valueOf(1));
+    }
+
+    @Test
+    public void testWatchDroppedWhenUnused() throws Exception {
+        final Path file = this.dir.resolve("konfig.yaml");
+        write(file, "a: 1\n");
+
+        Konfiguration k = KonfigurationFactory.getInstance().snakeYaml("yaml", file);
+        assertEquals(k.int_("a").v(), Integer.valueOf(1));
+        assertTrue(ExtFileWatch.isWatched(this.dir));
+
+        //noinspection UnusedAssignment
+        k = null;
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (ExtFileWatch.isWatched(this.dir)) {
+            assertTrue(System.currentTimeMillis() < deadline, "watch not dropped");
+            System.gc();
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void testProperties() throws Exception {
+        final Path file = this.dir.resolve("konfig.properties");
+        write(file, "a.b=1\nc=x\n");
+
+        final Konfiguration k = KonfigurationFactory.getInstance().properties("props", file);
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager manager = k.manager().get();
+
+        assertEquals(k.string("a.b").v(), "1");
+        assertFalse(manager.hasUpdate());
+
+        write(file, "a.b=2\nc=x\n");
+        awaitUpdate(manager);
+        manager.updateNow();
+        assertEquals(k.string("a.b").v(), "2");
+        assertEquals(k.string("c").v(), "x");
+    }
+
+}
@@ -1,8 +1,13 @@
 package io.koosha.konfiguration.impl;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KfgMissingKeyException;
+import io.koosha.konfiguration.Lookup;
 import io.koosha.konfiguration.TestUtil;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -14,10 +19,13 @@ import org.testng.annotations.Test;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 @SuppressWarnings("RedundantThrows")
@@ -132,6 +140,60 @@ public class ExtGsonJsonSourceTest {
         );
     }
 
+    @Test
+    public void testHasKeyPath() throws Exception {
+        assertTrue(this.k().has(KeyPath.of("some.nested.key"), Kind.INT));
+        assertFalse(this.k().has(KeyPath.of("some.nested.nope"), Kind.INT));
+        assertFalse(this.k().has(KeyPath.of("aInt.nested"), Kind.INT));
+        assertEquals(
+            this.k().has(KeyPath.of("some.nested.key"), Kind.STRING),
+            this.k().has("some.nested.key", Kind.STRING)
+        );
+    }
+
+    @Test
+    public void testAdaptersFollowSuppliedGson() throws Exception {
+        final AtomicReference<Gson> mapper = new AtomicReference<>(new Gson());
+        final ExtGsonSourceAdapters adapters = new ExtGsonSourceAdapters(mapper::get);
+        final Kind<TestUtil.DummyCustom> type = Kind.of(TestUtil.DummyCustom.class);
+
+        final TypeAdapter<?> adapter = adapters.adapter(type);
+        assertSame(adapters.adapter(type), adapter);
+        assertSame(adapters.mapper(), mapper.get());
+
+        // A different gson is picked up, along with its own adapters.
+        mapper.set(new Gson());
+        assertSame(adapters.mapper(), mapper.get());
+        final TypeAdapter<?> next = adapters.adapter(type);
+        assertNotSame(next, adapter);
+        assertSame(adapters.adapter(type), next);
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        assertEquals(this.k().lookup("aInt", Kind.INT), Lookup.FOUND);
+        assertEquals(this.k().lookup("aInt", Kind.LONG), Lookup.FOUND);
+        assertEquals(this.k().lookup("aInt", Kind.STRING), Lookup.TYPE_MISMATCH);
+        assertEquals(this.k().lookup("aLong", Kind.INT), Lookup.TYPE_MISMATCH);
+        assertEquals(this.k().lookup("some.nested.nope", Kind.INT), Lookup.MISSING);
+        assertEquals(
+            this.k().lookup("some.nested.userDefined", Kind.of(TestUtil.DummyCustom.class)),
+            Lookup.FOUND);
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        final Kind<TestUtil.DummyCustom> kind = Kind.of(TestUtil.DummyCustom.class);
+
+        final K<TestUtil.DummyCustom> custom = this.k().resolve(KeyPath.of("some.nested.userDefined"), kind);
+        assertTrue(custom.exists());
+        assertEquals(custom.v(), new TestUtil.DummyCustom("I'm all set", 99));
+
+        assertFalse(this.k().resolve(KeyPath.of("some.nested.nope"), kind).exists());
+        assertFalse(this.k().resolve(KeyPath.of("aString"), Kind.INT).exists());
+        assertEquals(this.k().resolve(KeyPath.of("aInt"), Kind.INT).v(), (Integer) 12);
+    }
+
     // BAD CASES
 
     @Test(expectedExceptions = KfgMissingKeyException.class,
@@ -1,8 +1,13 @@
 package io.koosha.konfiguration.impl;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.KfgMissingKeyException;
+import io.koosha.konfiguration.Lookup;
 import io.koosha.konfiguration.TestUtil;
+import io.koosha.konfiguration.type.KeyPath;
 import io.koosha.konfiguration.type.Kind;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -12,12 +17,20 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 @SuppressWarnings("RedundantThrows")
@@ -130,6 +143,162 @@ public class ExtJacksonSourceTest {
         );
     }
 
+    @Test
+    public void testHasKeyPath() throws Exception {
+        assertTrue(this.k().has(KeyPath.of("some.nested.key"), Kind.INT));
+        assertFalse(this.k().has(KeyPath.of("some.nested.nope"), Kind.INT));
+        assertFalse(this.k().has(KeyPath.of("aInt.nested"), Kind.INT));
+        assertEquals(
+            this.k().has(KeyPath.of("some.nested.key"), Kind.STRING),
+            this.k().has("some.nested.key", Kind.STRING)
+        );
+    }
+
+    @Test
+    public void testReadersFollowSuppliedMapper() throws Exception {
+        final AtomicReference<ObjectMapper> mapper = new AtomicReference<>(ExtJacksonSourceJsonHelper.mapper());
+        final ExtJacksonSourceReaders readers = new ExtJacksonSourceReaders(mapper::get);
+        final Kind<TestUtil.DummyCustom> type = Kind.of(TestUtil.DummyCustom.class);
+
+        final ObjectReader reader = readers.custom(type);
+        assertSame(readers.custom(type), reader);
+        assertSame(readers.mapper(), mapper.get());
+
+        // A different mapper is picked up, along with its own readers.
+        mapper.set(ExtJacksonSourceJsonHelper.mapper());
+        assertSame(readers.mapper(), mapper.get());
+        final ObjectReader next = readers.custom(type);
+        assertNotSame(next, reader);
+        assertSame(readers.custom(type), next);
+    }
+
+    @Test
+    public void testFetchesOncePerUpdate() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        this.k = new ExtJacksonSource("testJacksonSource",
+            () -> {
+                fetches.incrementAndGet();
+                return json;
+            },
+            ExtJacksonSourceJsonHelper::mapper);
+        assertEquals(fetches.get(), 1);
+
+        assertFalse(this.k().hasUpdate());
+        assertSame(this.k().updatedCopy(), this.k());
+        assertEquals(fetches.get(), 3);
+
+        this.json = SAMPLE_1;
+        assertTrue(this.k().hasUpdate());
+        this.k = (ExtJacksonSource) this.k().updatedCopy();
+        assertEquals(fetches.get(), 4);
+        assertEquals(this.k().int_("aInt").v(), (Integer) 99);
+        assertFalse(this.k().hasUpdate());
+    }
+
+    @Test
+    public void testBytes() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        // Only the remaining bytes are the payload, and the buffer is not moved.
+        final ByteBuffer bytes = ByteBuffer.wrap(("xx" + json).getBytes(StandardCharsets.UTF_8));
+        bytes.position(2);
+        this.k = ExtJacksonSource.bytes("testJacksonSource",
+            () -> {
+                fetches.incrementAndGet();
+                return SAMPLE_0.equals(this.json) ? bytes : ByteBuffer.wrap(this.json.getBytes(StandardCharsets.UTF_8));
+            },
+            ExtJacksonSourceJsonHelper::mapper);
+        assertEquals(this.k().int_("aInt").v(), (Integer) 12);
+        assertEquals(bytes.position(), 2);
+
+        assertFalse(this.k().hasUpdate());
+        assertEquals(bytes.position(), 2);
+
+        this.json = SAMPLE_1;
+        assertTrue(this.k().hasUpdate());
+        this.k = (ExtJacksonSource) this.k().updatedCopy();
+        assertEquals(this.k().int_("aInt").v(), (Integer) 99);
+        assertFalse(this.k().hasUpdate());
+        assertEquals(fetches.get(), 4);
+    }
+
+    @Test
+    public void testPendingVersionDoesNotFetch() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        this.k = new ExtJacksonSource("testJacksonSource",
+            () -> {
+                fetches.incrementAndGet();
+                return this.json;
+            },
+            ExtJacksonSourceJsonHelper::mapper);
+        fetches.set(0);
+
+        assertFalse(this.k().hasUpdate());
+        final long unchanged = this.k().pendingVersion();
+
+        this.json = SAMPLE_1;
+        assertTrue(this.k().hasUpdate());
+        final long changed = this.k().pendingVersion();
+        assertTrue(changed != unchanged);
+        assertEquals(this.k().pendingVersion(), changed);
+        assertEquals(fetches.get(), 2);
+
+        this.json = SAMPLE_0;
+        assertFalse(this.k().hasUpdate());
+        assertEquals(this.k().pendingVersion(), unchanged);
+        assertEquals(fetches.get(), 3);
+    }
+
+    @Test
+    public void testChangedKeys() throws Exception {
+        final ExtJacksonSource before = this.k();
+        assertTrue(((ExtJacksonSource) before.updatedCopy()).changedKeys(before).isEmpty());
+
+        this.update();
+        final Set<String> changed = this.k().changedKeys(before);
+        assertNotNull(changed);
+        assertTrue(changed.contains("aInt"));
+        assertTrue(changed.contains("aMap.a"));
+        assertTrue(changed.contains("aMap"));
+        assertTrue(changed.contains("some.nested.userDefined.i"));
+        assertTrue(changed.contains("some"));
+    }
+
+    @Test
+    public void testExactPath() throws Exception {
+        // "key" only exists under some.nested, it must not be found
+        // directly under some.
+        assertFalse(this.k().has(KeyPath.of("some.key"), Kind.INT));
+        assertEquals(this.k().lookup("some.key", Kind.INT), Lookup.MISSING);
+        assertTrue(this.k().keys().contains("some.nested.key"));
+        assertTrue(this.k().keys().contains("some.nested"));
+        assertFalse(this.k().keys().contains("some.key"));
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        assertEquals(this.k().lookup("aInt", Kind.INT), Lookup.FOUND);
+        assertEquals(this.k().lookup("aInt", Kind.LONG), Lookup.FOUND);
+        assertEquals(this.k().lookup("aInt", Kind.STRING), Lookup.TYPE_MISMATCH);
+        assertEquals(this.k().lookup("aLong", Kind.INT), Lookup.TYPE_MISMATCH);
+        assertEquals(this.k().lookup("some.nested.nope", Kind.INT), Lookup.MISSING);
+        assertEquals(
+            this.k().lookup("some.nested.userDefined", Kind.of(TestUtil.DummyCustom.class)),
+            Lookup.FOUND);
+    }
+
+    @Test
+    public void testResolve() throws Exception {
+        final Kind<TestUtil.DummyCustom> kind = Kind.of(TestUtil.DummyCustom.class);
+
+        final K<TestUtil.DummyCustom> custom = this.k().resolve(KeyPath.of("some.nested.userDefined"), kind);
+        assertTrue(custom.exists());
+        assertEquals(custom.v(), new TestUtil.DummyCustom("I'm all set", 99));
+
+        assertFalse(this.k().resolve(KeyPath.of("some.nested.nope"), kind).exists());
+        assertFalse(this.k().resolve(KeyPath.of("aString"), Kind.INT).exists());
+        assertEquals(this.k().resolve(KeyPath.of("aInt"), Kind.INT).v(), (Integer) 12);
+    }
+
     // BAD CASES
 
     @Test(expectedExceptions = KfgMissingKeyException.class,
@@ -4,6 +4,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.koosha.konfiguration.KfgMissingKeyException;
 import io.koosha.konfiguration.Konfiguration;
 import io.koosha.konfiguration.KonfigurationFactory;
+import io.koosha.konfiguration.KonfigurationManager;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -12,6 +13,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
@@ -101,6 +104,34 @@ public class ExtMapSourceTest {
         assertTrue(this.k().manager().get().hasUpdate());
     }
 
+    @Test
+    public void testVersioned() throws Exception {
+        final AtomicLong version = new AtomicLong();
+        final AtomicInteger fetches = new AtomicInteger();
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> {
+            fetches.incrementAndGet();
+            return map;
+        }, version::get);
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager manager = k.manager().get();
+
+        assertEquals(k.int_("aInt").v(), Integer.valueOf(12));
+        assertFalse(manager.hasUpdate());
+
+        // Not seen until the version changes.
+        map = map1;
+        assertFalse(manager.hasUpdate());
+        final int fetched = fetches.get();
+
+        version.incrementAndGet();
+        assertTrue(manager.hasUpdate());
+        assertEquals(fetches.get(), fetched);
+
+        manager.updateNow();
+        assertEquals(k.int_("aInt").v(), Integer.valueOf(99));
+        assertFalse(manager.hasUpdate());
+    }
+
     // =========================================================================
 
     @Test
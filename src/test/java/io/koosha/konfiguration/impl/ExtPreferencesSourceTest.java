@@ -0,0 +1,198 @@
+package io.koosha.konfiguration.impl;
+
+import io.koosha.konfiguration.Source;
+import io.koosha.konfiguration.type.Kind;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.prefs.AbstractPreferences;
+import java.util.prefs.Preferences;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+
+@SuppressWarnings("RedundantThrows")
+public class ExtPreferencesSourceTest {
+
+    /**
+     * Preferences kept in memory, nothing is persisted.
+     */
+    private static final class MemoryPreferences extends AbstractPreferences {
+
+        private final Map<String, String> values = new HashMap<>();
+        private final Map<String, MemoryPreferences> children = new HashMap<>();
+        private final AtomicInteger listed;
+
+        MemoryPreferences(final MemoryPreferences parent,
+                          final String name,
+                          final AtomicInteger listed) {
+            super(parent, name);
+            this.newNode = true;
+            this.listed = listed;
+        }
+
+
+        @Override
+        protected void putSpi(final String key,
+                              final String value) {
+            this.values.put(key, value);
+        }
+
+        @Override
+        protected String getSpi(final String key) {
+            return this.values.get(key);
+        }
+
+        @Override
+        protected void removeSpi(final String key) {
+            this.values.remove(key);
+        }
+
+        @Override
+        protected void removeNodeSpi() {
+            ((MemoryPreferences) this.parent()).children.remove(this.name());
+        }
+
+        @Override
+        protected String[] keysSpi() {
+            this.listed.incrementAndGet();
+            return this.values.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        protected String[] childrenNamesSpi() {
+            return this.children.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        protected AbstractPreferences childSpi(final String name) {
+            return this.children.computeIfAbsent(name, n -> new MemoryPreferences(this, n, this.listed));
+        }
+
+        @Override
+        protected void syncSpi() {
+        }
+
+        @Override
+        protected void flushSpi() {
+        }
+
+    }
+
+    private final AtomicInteger listed = new AtomicInteger();
+
+    private Preferences root;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        this.listed.set(0);
+        this.root = new MemoryPreferences(null, "", this.listed);
+        this.root.node("a");
+        this.root.put("a", "1");
+    }
+
+    @Test
+    public void testPutThenUpdate() throws Exception {
+        final ExtPreferencesSource source = new ExtPreferencesSource("prefs", this.root);
+        assertEquals(source.long_("a").v(), Long.valueOf(1));
+        assertFalse(source.hasUpdate());
+
+        this.root.put("a", "2");
+        awaitUpdate(source);
+
+        final Source updated = source.updatedCopy();
+        assertNotSame(updated, source);
+        assertEquals(updated.long_("a").v(), Long.valueOf(2));
+        assertFalse(updated.hasUpdate());
+    }
+
+    @Test
+    public void testNodeAddedAndRemoved() throws Exception {
+        final ExtPreferencesSource source = new ExtPreferencesSource("prefs", this.root);
+        assertFalse(source.has("b", Kind.LONG));
+
+        this.root.node("b");
+        this.root.put("b", "3");
+        awaitUpdate(source);
+        final Source added = source.updatedCopy();
+        assertTrue(added.has("b", Kind.LONG));
+        assertEquals(added.long_("b").v(), Long.valueOf(3));
+        assertFalse(added.hasUpdate());
+        // Each copy keeps its own view of the nodes.
+        assertFalse(source.has("b", Kind.LONG));
+
+        this.root.node("b").removeNode();
+        awaitUpdate(added);
+        final Source removed = added.updatedCopy();
+        assertFalse(removed.has("b", Kind.LONG));
+        assertFalse(removed.hasUpdate());
+    }
+
+    @Test
+    public void testWalkedOnlyOnChange() throws Exception {
+        final ExtPreferencesSource source = new ExtPreferencesSource("prefs", this.root);
+        final int listed = this.listed.get();
+        for (int i = 0; i < 10; i++)
+            assertFalse(source.hasUpdate());
+        assertEquals(this.listed.get(), listed);
+
+        this.root.put("a", "2");
+        awaitUpdate(source);
+        assertTrue(this.listed.get() > listed);
+    }
+
+    @Test
+    public void testCollidingStringHashes() throws Exception {
+        // "Aa" and "BB" have the same String.hashCode().
+        this.root.put("x", "Aa");
+        final ExtPreferencesSource source = new ExtPreferencesSource("prefs", this.root);
+
+        this.root.put("x", "BB");
+        awaitUpdate(source);
+    }
+
+    @Test
+    public void testListenersRemovedWhenUnused() throws Exception {
+        ExtPreferencesSource source = new ExtPreferencesSource("prefs", this.root);
+        this.root.put("a", "2");
+        awaitUpdate(source);
+        Source updated = source.updatedCopy();
+        assertNotSame(updated, source);
+        assertTrue(ExtPreferencesSource.isTracked(this.root));
+
+        // The copies share the tracker, it's kept while any of them is used.
+        //noinspection UnusedAssignment
+        source = null;
+        awaitGc();
+        assertTrue(ExtPreferencesSource.isTracked(this.root));
+        assertEquals(updated.long_("a").v(), Long.valueOf(2));
+
+        //noinspection UnusedAssignment
+        updated = null;
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (ExtPreferencesSource.isTracked(this.root)) {
+            assertTrue(System.currentTimeMillis() < deadline, "tracker not released");
+            awaitGc();
+        }
+    }
+
+    private static void awaitUpdate(final Source source) throws InterruptedException {
+        // Preferences delivers the events asynchronously.
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (!source.hasUpdate()) {
+            assertTrue(System.currentTimeMillis() < deadline, "change not seen");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitGc() throws InterruptedException {
+        System.gc();
+        Thread.sleep(20);
+    }
+
+}
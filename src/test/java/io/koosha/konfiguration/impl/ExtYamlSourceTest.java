@@ -17,6 +17,7 @@ import java.nio.file.Paths;
 import java.util.Scanner;
 import java.util.function.Supplier;
 
+import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
@@ -171,6 +172,12 @@ public class ExtYamlSourceTest {
 
     // =========================================================================
 
+    @Test
+    public void testList() {
+        assertEquals(this.k().list("aIntList", Kind.INT).v(), asList(1, 0, 2));
+        assertEquals(this.k().list("aStringList", Kind.STRING).v(), asList("a", "B", "c"));
+    }
+
     @Test
     public void testCustomValue() {
         final String yamlString = "bang:\n  str : hello\n  i: 99";
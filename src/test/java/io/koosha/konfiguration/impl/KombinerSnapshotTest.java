@@ -0,0 +1,139 @@
+package io.koosha.konfiguration.impl;
+
+import io.koosha.konfiguration.type.Kind;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@SuppressWarnings("RedundantThrows")
+public class KombinerSnapshotTest {
+
+    private static final int THREADS = 16;
+
+    private ExecutorService pool;
+    private KombinerSnapshot snapshot;
+
+    @BeforeMethod
+    public void setup() {
+        this.pool = Executors.newFixedThreadPool(THREADS);
+        this.snapshot = new KombinerSnapshot(
+            0, new KombinerSources(new LinkedHashMap<>()), Collections.emptyMap());
+    }
+
+    @AfterMethod
+    public void teardown() {
+        this.pool.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentIssueComputesOnce() throws Exception {
+        final Kind<?> key = Kind.STRING.withKey("missing");
+        final AtomicInteger computed = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Future<KombinerSlot>> issued = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++)
+            issued.add(this.pool.submit(() -> {
+                start.await();
+                return this.snapshot.issue(key, k -> {
+                    computed.incrementAndGet();
+                    try {
+                        // Keeps the others waiting on this one.
+                        Thread.sleep(50);
+                    }
+                    catch (final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return KombinerSlot.missing(this.snapshot.generation);
+                });
+            }));
+        start.countDown();
+
+        final KombinerSlot first = issued.get(0).get(5, TimeUnit.SECONDS);
+        for (final Future<KombinerSlot> slot : issued)
+            assertSame(slot.get(5, TimeUnit.SECONDS), first);
+        assertEquals(computed.get(), 1);
+        assertSame(this.snapshot.slot(key), first);
+    }
+
+    @Test
+    public void testFailedIssueNotCached() throws Exception {
+        final Kind<?> key = Kind.STRING.withKey("failing");
+        final AtomicInteger computed = new AtomicInteger();
+
+        try {
+            this.snapshot.issue(key, k -> {
+                computed.incrementAndGet();
+                throw new IllegalStateException("source down");
+            });
+            fail("expected the issuer's exception");
+        }
+        catch (final IllegalStateException e) {
+            assertEquals(e.getMessage(), "source down");
+        }
+        assertNull(this.snapshot.slot(key));
+
+        final KombinerSlot slot = this.snapshot.issue(key, k -> {
+            computed.incrementAndGet();
+            return this.snapshot.put(k, "value");
+        });
+        assertEquals(computed.get(), 2);
+        assertEquals(slot.value, "value");
+        assertSame(this.snapshot.slot(key), slot);
+    }
+
+    @Test
+    public void testConcurrentFailureSeenByWaiters() throws Exception {
+        final Kind<?> key = Kind.STRING.withKey("failing");
+        final AtomicInteger computed = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Future<KombinerSlot>> issued = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++)
+            issued.add(this.pool.submit(() -> {
+                start.await();
+                return this.snapshot.issue(key, k -> {
+                    computed.incrementAndGet();
+                    try {
+                        Thread.sleep(50);
+                    }
+                    catch (final InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    throw new IllegalStateException("source down");
+                });
+            }));
+        start.countDown();
+
+        for (final Future<KombinerSlot> slot : issued)
+            try {
+                slot.get(5, TimeUnit.SECONDS);
+                fail("expected the issuer's exception");
+            }
+            catch (final ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+            }
+        // Late callers retry, the ones waiting share the failure.
+        assertTrue(computed.get() >= 1 && computed.get() < THREADS, "computed: " + computed.get());
+        assertNull(this.snapshot.slot(key));
+    }
+
+}
@@ -1,6 +1,7 @@
 package io.koosha.konfiguration.impl;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.koosha.konfiguration.K;
 import io.koosha.konfiguration.Konfiguration;
 import io.koosha.konfiguration.KonfigurationFactory;
 import io.koosha.konfiguration.KonfigurationManager;
@@ -13,10 +14,16 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.koosha.konfiguration.TestUtil.mapOf;
 import static java.util.Arrays.asList;
@@ -113,6 +120,60 @@ public class KonfigurationKombinerConcurrencyTest {
         }
     }
 
+    @Test
+    public void testReadersSeeWholeSnapshot() throws Exception {
+        final AtomicLong generation = new AtomicLong();
+        final Konfiguration k = KonfigurationFactory.getInstance().kombine("kombine",
+            KonfigurationFactory.getInstance().map("map", () -> {
+                final long g = generation.get();
+                return mapOf("a", g, "b", g);
+            }, generation::get));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+        final K<Long> a = k.long_("a");
+        final K<Long> b = k.long_("b");
+        a.v();
+        b.v();
+
+        final int readers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        final ExecutorService e = Executors.newFixedThreadPool(readers + 1);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            e.submit(() -> {
+                while (running.get()) {
+                    generation.incrementAndGet();
+                    man.updateNow();
+                }
+            });
+
+            // Both keys change in the same update: a key read after another
+            // is never older, whichever is read first. Seeing otherwise means
+            // an update was seen half way through.
+            final List<Future<?>> reading = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                final boolean aFirst = i % 2 == 0;
+                reading.add(e.submit(() -> {
+                    for (int j = 0; j < 100_000; j++) {
+                        final long first = aFirst ? a.v() : b.v();
+                        final long second = aFirst ? b.v() : a.v();
+                        Assert.assertTrue(second >= first, first + " then " + second);
+                    }
+                }));
+            }
+            for (final Future<?> f : reading)
+                f.get(30, TimeUnit.SECONDS);
+        }
+        finally {
+            running.set(false);
+            e.shutdown();
+        }
+
+        Assert.assertTrue(generation.get() > 1, "no update happened");
+        Assert.assertTrue(e.awaitTermination(5, TimeUnit.SECONDS));
+        man.updateNow();
+        Assert.assertEquals(a.v(), b.v());
+    }
+
     // This test is plain wrong.
     @Test(enabled = false)
     public void testMissedUpdates() {
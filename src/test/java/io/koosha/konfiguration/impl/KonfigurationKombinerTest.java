@@ -1,21 +1,43 @@
 package io.koosha.konfiguration.impl;
 
+import io.koosha.konfiguration.Handle;
+import io.koosha.konfiguration.IntK;
+import io.koosha.konfiguration.K;
+import io.koosha.konfiguration.KeyObserver;
 import io.koosha.konfiguration.KfgMissingKeyException;
 import io.koosha.konfiguration.Konfiguration;
+import io.koosha.konfiguration.KonfigurationDispatcher;
 import io.koosha.konfiguration.KonfigurationFactory;
 import io.koosha.konfiguration.KonfigurationManager;
+import io.koosha.konfiguration.Lookup;
+import io.koosha.konfiguration.type.Kind;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static java.util.Collections.singletonMap;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 @SuppressWarnings("RedundantThrows")
 public final class KonfigurationKombinerTest {
@@ -83,4 +105,305 @@ public final class KonfigurationKombinerTest {
         assertNull(v);
     }
 
+    @Test
+    public void testPrimitive() {
+        final IntK xxx = k.int_("xxx");
+        assertEquals(xxx.getAsInt(), 12);
+
+        flag.set(!flag.get());
+        assertTrue(this.man.updateNow());
+
+        assertEquals(xxx.getAsInt(), 99);
+    }
+
+    @Test(expectedExceptions = KfgMissingKeyException.class)
+    public void testPrimitiveMissing() {
+        k.int_("some bla bla bla").getAsInt();
+    }
+
+    @Test
+    public void testPrimitiveDefaultValue() {
+        assertEquals(k.int_("some bla bla bla").getAsInt(7), 7);
+        assertEquals(k.double_("some bla bla bla").getAsDouble(0.5), 0.5);
+        assertTrue(k.bool("some bla bla bla").getAsBoolean(true));
+    }
+
+    @Test
+    public void testLayeredSources() {
+        final Map<String, Object> top = new HashMap<>();
+        top.put("shared", "top");
+        top.put("mixed", "not a number");
+        final Map<String, Object> bottom = new HashMap<>();
+        bottom.put("shared", "bottom");
+        bottom.put("mixed", 3);
+
+        final KonfigurationFactory f = KonfigurationFactory.getInstance();
+        final Konfiguration k = f.kombine("layers",
+            f.map("top", () -> new HashMap<>(top)),
+            f.map("bottom", () -> new HashMap<>(bottom)));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+
+        assertEquals(k.string("shared").v(), "top");
+        assertEquals(k.string("mixed").v(), "not a number");
+        assertEquals(k.int_("mixed").getAsInt(), 3);
+        assertFalse(k.has("late", Kind.STRING));
+
+        bottom.put("late", "bottom");
+        assertTrue(man.updateNow());
+        assertEquals(k.string("late").v(), "bottom");
+    }
+
+    @Test
+    public void testParallelUpdate() throws Exception {
+        final Map<String, Object> top = new HashMap<>();
+        top.put("shared", "top");
+        final Map<String, Object> bottom = new HashMap<>();
+        bottom.put("shared", "bottom");
+        bottom.put("own", "bottom");
+
+        final KonfigurationFactory f = KonfigurationFactory.getInstance();
+        final Konfiguration k = f.kombine("layers",
+            f.map("top", () -> new HashMap<>(top)),
+            f.map("bottom", () -> new HashMap<>(bottom)));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+        assertEquals(k.string("shared").v(), "top");
+        assertEquals(k.string("own").v(), "bottom");
+
+        top.put("shared", "top1");
+        bottom.put("shared", "bottom1");
+        bottom.put("own", "bottom1");
+
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            assertFalse(man.update(pool).isEmpty());
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        assertEquals(k.string("shared").v(), "top1");
+        assertEquals(k.string("own").v(), "bottom1");
+        assertFalse(man.hasUpdate());
+    }
+
+    @Test
+    public void testObserversByKey() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("a", "a0");
+        map.put("b", "b0");
+        map.put("c", "c0");
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> new HashMap<>(map));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+        k.string("a").v();
+        k.string("b").v();
+        k.string("c").v();
+
+        final List<String> seen = new ArrayList<>();
+        k.register(key -> seen.add("a1:" + key), "a");
+        final Handle a2 = k.register(key -> seen.add("a2:" + key), "a");
+        k.register(key -> seen.add("b:" + key), "b");
+        k.register(key -> seen.add("c:" + key), "c");
+        k.register(key -> seen.add("all:" + key), KeyObserver.LISTEN_TO_ALL);
+        k.deregister(a2, "a");
+
+        map.put("a", "a1");
+        map.put("b", "b1");
+        final Map<String, Collection<Runnable>> toNotify = man.update();
+        assertFalse(toNotify.containsKey("c"));
+        toNotify.values().forEach(listeners -> listeners.forEach(Runnable::run));
+
+        Collections.sort(seen);
+        assertEquals(seen, Arrays.asList("a1:a", "all:" + KeyObserver.LISTEN_TO_ALL, "b:b"));
+    }
+
+    @Test
+    public void testBatchObserver() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("a", "a0");
+        map.put("b", "b0");
+        map.put("c", "c0");
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> new HashMap<>(map));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+        k.string("a").v();
+        k.string("b").v();
+        k.string("c").v();
+
+        final List<Set<String>> batches = new ArrayList<>();
+        final List<Long> versions = new ArrayList<>();
+        k.register((keys, oldVersion, newVersion) -> {
+            batches.add(keys);
+            versions.add(oldVersion);
+            versions.add(newVersion);
+        }, Arrays.asList("a", "b", "c"));
+        final List<Set<String>> all = new ArrayList<>();
+        k.register((keys, oldVersion, newVersion) -> all.add(keys),
+            Collections.singleton(KeyObserver.LISTEN_TO_ALL));
+
+        map.put("a", "a1");
+        map.put("b", "b1");
+        man.updateNow();
+
+        assertEquals(batches, Collections.singletonList(new HashSet<>(Arrays.asList("a", "b"))));
+        assertEquals(versions.get(1) - versions.get(0), 1L);
+        assertEquals(all, batches);
+    }
+
+    @Test
+    public void testObserverOnSeveralKeysNeverConcurrent() throws Exception {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("a", "a0");
+        map.put("b", "b0");
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> new HashMap<>(map));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+        k.string("a").v();
+        k.string("b").v();
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        // Once per key seeing its last value, earlier ones may be superseded.
+        final CountDownLatch done = new CountDownLatch(2);
+        final KeyObserver observer = key -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            }
+            catch (final InterruptedException e) {
+                // Pool shut down after the last values were seen.
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            if (k.string(key).v().endsWith("3"))
+                done.countDown();
+        };
+        k.register(observer, "a");
+        k.register(observer, "b");
+
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (KonfigurationDispatcher dispatcher = new KonfigurationDispatcher(pool, 16)) {
+            for (int i = 1; i <= 3; i++) {
+                map.put("a", "a" + i);
+                map.put("b", "b" + i);
+                assertTrue(man.updateNow(dispatcher));
+                Thread.sleep(10);
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(maxRunning.get(), 1);
+    }
+
+    @Test
+    public void testOnlyChangedKeysRecomputed() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("b", "b0");
+        // Equal but never the same instance, as if parsed again.
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> {
+            final Map<String, Object> copy = new HashMap<>(map);
+            copy.put("a", new String("a0"));
+            return copy;
+        });
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+
+        final K<String> a = k.string("a");
+        final K<String> b = k.string("b");
+        final String a0 = a.v();
+        assertEquals(b.v(), "b0");
+
+        final List<String> seen = new ArrayList<>();
+        k.register(key -> seen.add("a"), "a");
+        k.register(key -> seen.add("b"), "b");
+
+        map.put("b", "b1");
+        assertTrue(man.updateNow());
+
+        // Not read again: the very same value, and no notification.
+        assertSame(a.v(), a0);
+        assertSame(k.string("a").v(), a0);
+        assertEquals(b.v(), "b1");
+        assertEquals(seen, Collections.singletonList("b"));
+    }
+
+    @Test
+    public void testHandleSeesUpdate() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("a", "a0");
+        map.put("i", 1);
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> new HashMap<>(map));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+
+        // Obtained before the update, read after it.
+        final K<String> a = k.string("a");
+        final IntK i = k.int_("i");
+        assertEquals(a.v(), "a0");
+        assertEquals(i.getAsInt(), 1);
+
+        map.put("a", "a1");
+        map.put("i", 2);
+        assertTrue(man.updateNow());
+
+        assertEquals(a.v(), "a1");
+        assertEquals(i.getAsInt(), 2);
+        assertEquals(i.v(), Integer.valueOf(2));
+    }
+
+    @Test
+    public void testHandleOfRemovedKey() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put("a", "a0");
+        map.put("b", "b0");
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> new HashMap<>(map));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+
+        final K<String> b = k.string("b");
+        assertTrue(b.exists());
+        assertEquals(b.v(), "b0");
+
+        map.remove("b");
+        assertTrue(man.updateNow());
+
+        assertFalse(b.exists());
+        assertEquals(b.lookup(), Lookup.MISSING);
+        assertEquals(b.v("def"), "def");
+        try {
+            b.v();
+            fail("removed key must be missing");
+        }
+        catch (final KfgMissingKeyException e) {
+            // Expected.
+        }
+        assertEquals(k.string("a").v(), "a0");
+    }
+
+    @Test
+    public void testMissingKeyAppearsAfterUpdate() {
+        final Map<String, Object> map = new HashMap<>();
+        final Konfiguration k = KonfigurationFactory.getInstance().map("map", () -> new HashMap<>(map));
+        //noinspection OptionalGetWithoutIsPresent
+        final KonfigurationManager man = k.manager().get();
+
+        final K<String> optional = k.string("optional");
+        assertEquals(optional.v("def"), "def");
+        assertEquals(optional.v("def"), "def");
+        assertFalse(optional.exists());
+        assertEquals(optional.lookup(), Lookup.MISSING);
+
+        map.put("optional", "here");
+        assertTrue(man.updateNow());
+
+        assertTrue(optional.exists());
+        assertEquals(optional.v("def"), "here");
+        assertEquals(optional.lookup(), Lookup.FOUND);
+        assertEquals(k.string("optional").v(), "here");
+    }
+
 }